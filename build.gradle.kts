@@ -2,6 +2,8 @@ plugins {
     id("java")
     id("org.springframework.boot") version "3.2.0"
     id("io.spring.dependency-management") version "1.1.4"
+    // Микробенчмарки в src/jmh (./gradlew jmh)
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "con.jewelry"
@@ -28,6 +30,12 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    // Интеграционные тесты на настоящих PostgreSQL и Redis
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
+    testImplementation("org.springframework.kafka:spring-kafka-test")
+    // Бенчмарк страницы заказов поднимает PostgreSQL так же, как интеграционные тесты
+    jmh("org.testcontainers:postgresql")
 
     implementation("org.springframework.kafka:spring-kafka")
 
@@ -59,6 +67,11 @@ dependencies {
 
     // Redis
     implementation("org.springframework.boot:spring-boot-starter-data-redis");
+    // Локальный уровень кеша перед Redis
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    // Компактная сериализация значений кеша
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("org.lz4:lz4-java:1.8.0")
 
     //OpenCSV
     implementation("com.opencsv:opencsv:5.7.1")
@@ -68,4 +81,9 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+jmh {
+    // Выделение памяти на операцию (gc.alloc.rate.norm) рядом со временем
+    profilers.add("gc")
+}
@@ -0,0 +1,115 @@
+package com.jewelry.workshop.infrastructure.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO;
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение прежнего кодека кеша поиска (JSON с именами классов) с типизированным Smile + LZ4.
+// Мапперы настроены так же, как в CacheConfig. Размер значения в байтах выводится
+// вспомогательным счётчиком encodedBytes у бенчмарков сериализации.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int pageSize;
+
+    private ProductSearchResponseDTO value;
+    private RedisSerializer<Object> generic;
+    private RedisSerializer<ProductSearchResponseDTO> compact;
+    private byte[] genericBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper typing = new ObjectMapper();
+        typing.registerModule(new JavaTimeModule());
+        typing.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        typing.activateDefaultTyping(typing.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        generic = new GenericJackson2JsonRedisSerializer(typing);
+
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        smile.registerModule(new JavaTimeModule());
+        smile.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        compact = new CompactRedisSerializer<>(smile, ProductSearchResponseDTO.class, 1024);
+
+        value = searchPage(pageSize);
+        genericBytes = generic.serialize(value);
+        compactBytes = compact.serialize(value);
+    }
+
+    // Счётчик типа EVENTS JMH печатает как есть, без деления на время: поле хранит размер последнего значения
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long encodedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeGeneric(EncodedSize size) {
+        byte[] bytes = generic.serialize(value);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] serializeCompact(EncodedSize size) {
+        byte[] bytes = compact.serialize(value);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserializeGeneric() {
+        return generic.deserialize(genericBytes);
+    }
+
+    @Benchmark
+    public Object deserializeCompact() {
+        return compact.deserialize(compactBytes);
+    }
+
+    private static ProductSearchResponseDTO searchPage(int size) {
+        Instant now = Instant.parse("2024-05-01T10:15:30Z");
+        List<ProductResponseDTO> items = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            items.add(new ProductResponseDTO(i, "Кольцо с фианитом " + i, "Серебро 925 пробы, родирование",
+                    "RING-" + (1000 + i), new BigDecimal("3.250"), new BigDecimal("4590.00"), "RING",
+                    (int) (i % 7), Boolean.TRUE, now, now));
+        }
+        ProductSearchResponseDTO response = new ProductSearchResponseDTO();
+        response.setItems(items);
+        response.setPage(0);
+        response.setSize(size);
+        response.setTotalElements(250);
+        response.setTotalPages((250 + size - 1) / size);
+        response.setFirst(true);
+        response.setLast(false);
+        response.setEmpty(items.isEmpty());
+        return response;
+    }
+}
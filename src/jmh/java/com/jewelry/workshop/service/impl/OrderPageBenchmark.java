@@ -0,0 +1,173 @@
+package com.jewelry.workshop.service.impl;
+
+import com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO;
+import com.jewelry.workshop.domain.model.dto.orderitem.OrderItemResponseDTO;
+import com.jewelry.workshop.domain.model.entity.Order;
+import com.jewelry.workshop.domain.repository.OrderItemRepository;
+import com.jewelry.workshop.domain.repository.OrderRepository;
+import com.jewelry.workshop.service.mapper.ClientMapper;
+import com.jewelry.workshop.service.mapper.OrderItemMapper;
+import com.jewelry.workshop.service.mapper.OrderMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Одна и та же страница заказов двумя способами: проекция в DTO (как getAllOrders) и загрузка сущностей
+// с маппингом. Запросы одинаковой формы — заказы с клиентом по ORDER BY order_datetime DESC, id DESC
+// с OFFSET/LIMIT, COUNT и позиции с изделиями одним запросом, — различается только материализация.
+// Схема из миграций Flyway на PostgreSQL в Testcontainers; выделение памяти — профилировщик gc (jmh.profilers в build.gradle.kts).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPageBenchmark {
+
+    private static final int CLIENTS = 20;
+    private static final int PRODUCTS = 50;
+    private static final int ORDERS = 500;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    private static final String ENTITY_PAGE = """
+            SELECT o FROM Order o
+            JOIN FETCH o.client c
+            JOIN FETCH c.user
+            ORDER BY o.orderDatetime DESC, o.id DESC
+            """;
+
+    @Param({"20", "50"})
+    public int pageSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+    private OrderMapper orderMapper;
+    private PageRequest page;
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            FlywayAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    @Import({OrderMapper.class, ClientMapper.class, OrderItemMapper.class})
+    static class PersistenceContext {
+    }
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(PersistenceContext.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false")
+                .run();
+
+        fill(context.getBean(JdbcTemplate.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = context.getBean(EntityManager.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        orderItemRepository = context.getBean(OrderItemRepository.class);
+        orderMapper = context.getBean(OrderMapper.class);
+        // Середина списка: OFFSET не нулевой, COUNT выполняется
+        page = PageRequest.of(ORDERS / pageSize / 2, pageSize,
+                Sort.by(Sort.Direction.DESC, "orderDatetime", "id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Page<OrderResponseDTO> projection() {
+        return readOnly.execute(status -> {
+            Page<OrderResponseDTO> orders = orderRepository.findResponsePage(page);
+            Map<Long, OrderResponseDTO> byId = new HashMap<>();
+            for (OrderResponseDTO order : orders.getContent()) {
+                order.setItems(new ArrayList<>());
+                byId.put(order.getId(), order);
+            }
+            for (OrderItemResponseDTO item : orderItemRepository.findResponseRowsByOrderIds(byId.keySet())) {
+                byId.get(item.getOrderId()).getItems().add(item);
+            }
+            return orders;
+        });
+    }
+
+    @Benchmark
+    public Page<OrderResponseDTO> entities() {
+        return readOnly.execute(status -> {
+            List<Order> orders = entityManager.createQuery(ENTITY_PAGE, Order.class)
+                    .setFirstResult((int) page.getOffset())
+                    .setMaxResults(page.getPageSize())
+                    .getResultList();
+            long total = entityManager.createQuery("SELECT COUNT(o) FROM Order o", Long.class).getSingleResult();
+            orderRepository.fetchItemsWithProducts(orders);
+            return new PageImpl<>(orders.stream().map(orderMapper::toDto).toList(), page, total);
+        });
+    }
+
+    private static void fill(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, password_hash, role, enabled)
+                SELECT 'client' || g, 'client' || g || '@bench.local', 'x', 'CLIENT', TRUE
+                FROM generate_series(1, ?) g
+                """, CLIENTS);
+        jdbcTemplate.update("""
+                INSERT INTO clients (user_id, first_name, last_name, phone)
+                SELECT id, 'Имя', 'Фамилия' || id, '+7900000' || lpad(id::text, 4, '0') FROM users
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO products (name, sku, weight, price, type, in_stock, is_available)
+                SELECT 'Изделие ' || g, 'SKU-' || g, 2.5, 1000, 'RING', 10, TRUE
+                FROM generate_series(1, ?) g
+                """, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO orders (client_id, status, total_amount, discount_amount, final_amount, order_datetime)
+                SELECT (SELECT min(id) FROM clients) + g % ?, 'PENDING', 3000, 0, 3000, now() - make_interval(mins => g)
+                FROM generate_series(1, ?) g
+                """, CLIENTS, ORDERS);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (order_id, product_id, quantity, unit_price, total_price)
+                SELECT o.id, (SELECT min(id) FROM products) + (o.id + k) % ?, 1, 1000, 1000
+                FROM orders o CROSS JOIN generate_series(0, ? - 1) k
+                """, PRODUCTS, ITEMS_PER_ORDER);
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
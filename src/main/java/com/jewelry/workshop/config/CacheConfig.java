@@ -1,16 +1,32 @@
 package com.jewelry.workshop.config;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jewelry.workshop.config.properties.CacheCodecProperties;
+import com.jewelry.workshop.config.properties.LocalCacheProperties;
+import com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO;
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchResponseDTO;
+import com.jewelry.workshop.infrastructure.cache.CacheInvalidationBus;
+import com.jewelry.workshop.infrastructure.cache.CompactRedisSerializer;
+import com.jewelry.workshop.infrastructure.cache.ProductCacheKeys;
+import com.jewelry.workshop.infrastructure.cache.TwoTierCacheManager;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -44,7 +60,25 @@ public class CacheConfig {
     }
     
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, LocalCacheProperties properties) {
+        return new CacheInvalidationBus(redisTemplate, properties);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus invalidationBus,
+                                                                           LocalCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     LocalCacheProperties localProperties,
+                                     CacheCodecProperties codecProperties,
+                                     CacheInvalidationBus invalidationBus) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(15))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
@@ -52,8 +86,46 @@ public class CacheConfig {
                         new GenericJackson2JsonRedisSerializer(redisObjectMapperWithTyping())
                 ));
 
-        return RedisCacheManager.builder(connectionFactory)
+        // Для кешей с известным типом значения — компактный кодек без имён классов
+        ObjectMapper codecMapper = cacheCodecMapper(codecProperties);
+        int threshold = codecProperties.isCompression() ? codecProperties.getCompressionThreshold() : -1;
+
+        // clear() по умолчанию выполняет KEYS под блокировкой кеша; SCAN обходит ключи порциями, не останавливая Redis
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(1000));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .withCacheConfiguration(ProductCacheKeys.PRODUCTS, typedCacheConfig(config,
+                        new CompactRedisSerializer<>(codecMapper, ProductResponseDTO.class, threshold)))
+                .withCacheConfiguration(ProductCacheKeys.PRODUCT_SEARCH, typedCacheConfig(config,
+                        new CompactRedisSerializer<>(codecMapper, ProductSearchResponseDTO.class, threshold)))
+                .enableStatistics()
                 .build();
+
+        if (!localProperties.isEnabled()) {
+            return redisCacheManager;
+        }
+        // Менеджер Redis не регистрируется бином, поэтому инициализируется вручную
+        redisCacheManager.initializeCaches();
+        return new TwoTierCacheManager(redisCacheManager, localProperties, invalidationBus);
+    }
+
+    private ObjectMapper cacheCodecMapper(CacheCodecProperties properties) {
+        ObjectMapper mapper = "json".equalsIgnoreCase(properties.getFormat())
+                ? new ObjectMapper()
+                : new ObjectMapper(new SmileFactory());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    // Значение null типизированный кодек не пишет, поэтому такие кеши не хранят null.
+    // Отдельный префикс ключей — чтобы не читать записи, оставшиеся в прежнем формате JSON.
+    private RedisCacheConfiguration typedCacheConfig(RedisCacheConfiguration defaults, CompactRedisSerializer<?> serializer) {
+        return defaults
+                .disableCachingNullValues()
+                .computePrefixWith(cacheName -> cacheName + ":c1::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
     }
-}
\ No newline at end of file
+}
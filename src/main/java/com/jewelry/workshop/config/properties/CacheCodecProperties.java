@@ -0,0 +1,16 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache.codec")
+public class CacheCodecProperties {
+    // smile — бинарный Jackson, json — текстовый без имён классов
+    private String format = "smile";
+    private boolean compression = true;
+    // Маленькие значения не сжимаются: выигрыш меньше заголовка и затрат CPU
+    private int compressionThreshold = 1024;
+}
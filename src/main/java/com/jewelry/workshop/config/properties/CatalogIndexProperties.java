@@ -0,0 +1,12 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.catalog.index")
+public class CatalogIndexProperties {
+    private boolean enabled = false;
+}
@@ -0,0 +1,19 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.events.kafka")
+public class DomainEventProperties {
+    private boolean enabled = false;
+    private String ordersTopic = "jewelry.orders";
+    private String inventoryTopic = "jewelry.inventory";
+    private int batchSize = 200;
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    private Duration retention = Duration.ofDays(7);
+}
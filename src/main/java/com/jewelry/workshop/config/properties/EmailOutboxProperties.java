@@ -0,0 +1,19 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.email.outbox")
+public class EmailOutboxProperties {
+    private int batchSize = 50;
+    private int maxAttempts = 8;
+    private Duration initialBackoff = Duration.ofSeconds(30);
+    private Duration maxBackoff = Duration.ofHours(1);
+    // На сколько письмо снимается с очереди на время отправки; должно с запасом покрывать таймауты SMTP на пачку
+    private Duration claimTimeout = Duration.ofMinutes(10);
+}
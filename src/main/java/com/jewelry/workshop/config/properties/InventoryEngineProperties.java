@@ -0,0 +1,16 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.inventory.engine")
+public class InventoryEngineProperties {
+    private boolean enabled = false;
+    private int leaseChunk = 20;
+    private Duration leaseTtl = Duration.ofMinutes(2);
+}
@@ -0,0 +1,20 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache.local")
+public class LocalCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    // Должен быть короче TTL в Redis, чтобы локальная копия не пережила общую
+    private Duration ttl = Duration.ofMinutes(1);
+    private String invalidationChannel = "cache:invalidate";
+    // Как часто узел перечитывает поколение ключей поиска, сменённое другими узлами
+    private Duration searchGenerationTtl = Duration.ofSeconds(1);
+}
@@ -0,0 +1,20 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit.local")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // Лимиты меньше этого значения всегда проверяются в Redis: локальный запас исказил бы их
+    private int minLimitForLease = 20;
+    // Доля лимита, забираемая узлом за раз
+    private double leaseFraction = 0.1;
+    private Duration leaseTtl = Duration.ofSeconds(5);
+    private long maxKeys = 100_000;
+}
@@ -0,0 +1,17 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.reports")
+public class ReportProperties {
+    // Каждый поток держит своё соединение: значение должно быть заметно меньше размера пула Hikari
+    private int queryThreads = 4;
+    private int queueCapacity = 100;
+    private Duration timeout = Duration.ofSeconds(15);
+}
@@ -0,0 +1,15 @@
+package com.jewelry.workshop.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.stock.reservation")
+public class StockReservationProperties {
+    private Duration holdTtl = Duration.ofMinutes(30);
+    private int sweepBatchSize = 500;
+}
@@ -0,0 +1,11 @@
+package com.jewelry.workshop.domain.event;
+
+import java.time.Instant;
+
+// Публикуется вместе с OrderStatusChangedEvent; reason — кто отменил заказ
+public record OrderCancelledEvent(Long orderId, Long clientId, String reason, Instant occurredAt) {
+
+    public static final String REASON_CLIENT = "CLIENT";
+    public static final String REASON_STAFF = "STAFF";
+    public static final String REASON_HOLD_EXPIRED = "HOLD_EXPIRED";
+}
@@ -0,0 +1,13 @@
+package com.jewelry.workshop.domain.event;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+// Оформлен заказ; позиции зарезервированы, но ещё не списаны с остатка
+public record OrderCreatedEvent(Long orderId, Long clientId, BigDecimal totalAmount, BigDecimal discountAmount,
+                                BigDecimal finalAmount, List<Item> items, Instant occurredAt) {
+
+    public record Item(Long productId, Integer quantity, BigDecimal totalPrice) {
+    }
+}
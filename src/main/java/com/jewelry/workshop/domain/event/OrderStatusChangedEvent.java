@@ -0,0 +1,7 @@
+package com.jewelry.workshop.domain.event;
+
+import java.time.Instant;
+
+public record OrderStatusChangedEvent(Long orderId, Long clientId, String previousStatus, String newStatus,
+                                      Instant occurredAt) {
+}
@@ -0,0 +1,5 @@
+package com.jewelry.workshop.domain.event;
+
+// Изделие создано, изменено (в том числе остаток) или удалено
+public record ProductChangedEvent(Long productId) {
+}
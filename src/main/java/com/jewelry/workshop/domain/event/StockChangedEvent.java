@@ -0,0 +1,11 @@
+package com.jewelry.workshop.domain.event;
+
+import java.time.Instant;
+
+// Изменился фактический остаток изделия (products.in_stock); резервы на него не влияют
+public record StockChangedEvent(Long productId, Integer inStock, String reason, Instant occurredAt) {
+
+    public static final String REASON_MANUAL = "MANUAL";
+    public static final String REASON_SETTLED = "SETTLED";
+    public static final String REASON_RELEASED = "RELEASED";
+}
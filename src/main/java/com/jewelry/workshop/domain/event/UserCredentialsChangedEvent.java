@@ -0,0 +1,5 @@
+package com.jewelry.workshop.domain.event;
+
+// Изменились данные, на которых построена аутентификация пользователя: роль, email, пароль, активность
+public record UserCredentialsChangedEvent(Long userId, String email) {
+}
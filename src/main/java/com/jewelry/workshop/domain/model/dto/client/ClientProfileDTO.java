@@ -2,14 +2,18 @@ package com.jewelry.workshop.domain.model.dto.client;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
 @Builder
+@AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "DTO для профиля клиента (упрощенный для /me endpoint)")
 public class ClientProfileDTO {
@@ -43,4 +47,19 @@ public class ClientProfileDTO {
 
     @Schema(description = "Дата последнего заказа", example = "2024-01-20 14:30:00")
     private LocalDateTime lastOrderDate;
-}
\ No newline at end of file
+
+    // Проекция из JPQL: профиль вместе со строкой client_stats, которой нет, пока клиент не сделал заказов
+    public ClientProfileDTO(String firstName, String lastName, String patronymic, String email, String phone,
+                            Boolean isPermanent, Long orderCount, BigDecimal totalSpent, Instant lastOrderAt) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.patronymic = patronymic;
+        this.email = email;
+        this.phone = phone;
+        this.isPermanent = isPermanent;
+        this.fullName = lastName + " " + firstName + (patronymic == null || patronymic.isEmpty() ? "" : " " + patronymic);
+        this.orderCount = orderCount != null ? orderCount : 0L;
+        this.totalSpent = totalSpent != null ? totalSpent : BigDecimal.ZERO;
+        this.lastOrderDate = lastOrderAt != null ? LocalDateTime.ofInstant(lastOrderAt, ZoneId.systemDefault()) : null;
+    }
+}
@@ -4,13 +4,17 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
 @Builder(builderMethodName = "builder", access = AccessLevel.PUBLIC)
+@AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "DTO для ответа с информацией о клиенте")
 public class ClientResponseDTO {
@@ -49,4 +53,20 @@ public class ClientResponseDTO {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @Schema(description = "Дата обновления", example = "2024-01-15 14:30:00")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Проекция из JPQL по clients JOIN users; полное имя собирается так же, как Client.getFullName()
+    public ClientResponseDTO(Long id, String firstName, String lastName, String patronymic, String email,
+                             String phone, Boolean isPermanent, Long userId, Instant createdAt, Instant updatedAt) {
+        this(id, firstName, lastName, patronymic, email, phone, isPermanent,
+                fullName(lastName, firstName, patronymic), userId,
+                toLocalDateTime(createdAt), toLocalDateTime(updatedAt));
+    }
+
+    private static String fullName(String lastName, String firstName, String patronymic) {
+        return lastName + " " + firstName + (patronymic == null || patronymic.isEmpty() ? "" : " " + patronymic);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jewelry.workshop.domain.model.dto.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Страница результатов с курсорной (keyset) пагинацией, без подсчёта общего количества")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Элементы страницы")
+    private List<T> items;
+
+    @Schema(description = "Курсор следующей страницы (отсутствует на последней странице)", example = "MTcwNTMyOTAwMC4wOjQy")
+    private String nextCursor;
+
+    @Schema(description = "Есть ли следующая страница", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Размер страницы", example = "20")
+    private int size;
+}
@@ -4,10 +4,14 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "DTO для ответа с информацией о материале")
 public class MaterialResponseDTO {
@@ -28,4 +32,17 @@ public class MaterialResponseDTO {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @Schema(description = "Дата обновления", example = "2024-01-15 14:30:00")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Конструктор для проекции в JPQL (SELECT new ...): списки строятся без загрузки сущностей
+    public MaterialResponseDTO(Long id, String name, String description, Instant createdAt, Instant updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.createdAt = toLocalDateTime(createdAt);
+        this.updatedAt = toLocalDateTime(updatedAt);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.jewelry.workshop.domain.model.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Строка выгрузки заказов; заполняется конструктором прямо в JPQL-запросе
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRowDTO {
+    private Long orderId;
+    private Long orderNumber;
+    private Instant orderDatetime;
+    private String status;
+    private Long clientId;
+    private String clientLastName;
+    private String clientFirstName;
+    private String clientPhone;
+    private BigDecimal totalAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal finalAmount;
+    private Instant completedAt;
+}
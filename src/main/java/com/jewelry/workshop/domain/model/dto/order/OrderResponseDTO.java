@@ -6,15 +6,19 @@ import com.jewelry.workshop.domain.model.dto.client.ClientResponseDTO;
 import com.jewelry.workshop.domain.model.dto.orderitem.OrderItemResponseDTO;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @Data
 @Builder(builderMethodName = "builder", access = AccessLevel.PUBLIC)
+@AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "DTO для ответа с информацией о заказе")
 public class OrderResponseDTO {
@@ -61,4 +65,24 @@ public class OrderResponseDTO {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @Schema(description = "Дата последнего обновления", example = "2024-01-15 14:30:00")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Проекция из JPQL по orders JOIN clients JOIN users. Вложенный конструктор JPQL не поддерживает,
+    // поэтому поля клиента передаются плоско; позиции заполняются отдельным запросом
+    public OrderResponseDTO(Long id, Long orderNumber, String status, BigDecimal totalAmount,
+                            BigDecimal discountAmount, BigDecimal finalAmount, String notes,
+                            Instant orderDatetime, Instant completedAt, Instant createdAt, Instant updatedAt,
+                            Long clientId, String clientFirstName, String clientLastName, String clientPatronymic,
+                            String clientEmail, String clientPhone, Boolean clientIsPermanent, Long clientUserId,
+                            Instant clientCreatedAt, Instant clientUpdatedAt) {
+        this(id, orderNumber,
+                new ClientResponseDTO(clientId, clientFirstName, clientLastName, clientPatronymic, clientEmail,
+                        clientPhone, clientIsPermanent, clientUserId, clientCreatedAt, clientUpdatedAt),
+                status, totalAmount, discountAmount, finalAmount, notes, null,
+                toLocalDateTime(orderDatetime), toLocalDateTime(completedAt),
+                toLocalDateTime(createdAt), toLocalDateTime(updatedAt));
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
@@ -1,16 +1,24 @@
 package com.jewelry.workshop.domain.model.dto.orderitem;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "DTO для ответа с информацией о позиции в заказе")
 public class OrderItemResponseDTO {
 
+    // Заказ, к которому относится позиция, — только для раскладки результата проекции по заказам
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long orderId;
+
     @Schema(description = "ID позиции заказа", example = "1")
     private Long id;
 
@@ -37,4 +45,19 @@ public class OrderItemResponseDTO {
 
     @Schema(description = "Общий вес позиции (г)", example = "10.500")
     private BigDecimal totalWeight;
-}
\ No newline at end of file
+
+    // Проекция из JPQL по order_items JOIN products
+    public OrderItemResponseDTO(Long orderId, Long id, Long productId, String productName, String productSku,
+                                Integer quantity, BigDecimal unitPrice, BigDecimal totalPrice, BigDecimal unitWeight) {
+        this.orderId = orderId;
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.productSku = productSku;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = totalPrice;
+        this.unitWeight = unitWeight;
+        this.totalWeight = unitWeight.multiply(BigDecimal.valueOf(quantity));
+    }
+}
@@ -6,7 +6,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
 @Builder(builderMethodName = "builder", access = AccessLevel.PUBLIC)
@@ -29,7 +31,7 @@ public class ProductResponseDTO {
     private BigDecimal price;
     @Schema(description = "Тип изделия", example = "КОЛЬЦО")
     private String type;
-    @Schema(description = "Количество на складе", example = "10")
+    @Schema(description = "Количество на складе, включая зарезервированное под неоплаченные заказы", example = "10")
     private Integer inStock;
     @Schema(description = "Доступно ли изделие для заказа", example = "true")
     private Boolean isAvailable;
@@ -41,4 +43,16 @@ public class ProductResponseDTO {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     @Schema(description = "Дата последнего обновления", example = "2024-01-15 14:30:00")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Проекция из JPQL: временные метки сущности хранятся как Instant
+    public ProductResponseDTO(Long id, String name, String description, String sku, BigDecimal weight,
+                              BigDecimal price, String type, Integer inStock, Boolean isAvailable,
+                              Instant createdAt, Instant updatedAt) {
+        this(id, name, description, sku, weight, price, type, inStock, isAvailable,
+                toLocalDateTime(createdAt), toLocalDateTime(updatedAt));
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
@@ -27,14 +27,14 @@ public class ProductSearchDTO {
     @Schema(description = "Максимальный вес", example = "50.000")
     private BigDecimal maxWeight;
 
-    @Schema(description = "Минимальное количество на складе", example = "1")
+    @Schema(description = "Минимальное количество на складе (с учётом зарезервированного)", example = "1")
     private Integer minStock;
 
     @Schema(description = "Доступность", example = "true")
     private Boolean isAvailable;
 
-    @Schema(description = "Сортировка",
-            allowableValues = {"name", "price", "weight", "stock", "created"},
+    @Schema(description = "Сортировка (relevance — по релевантности, только вместе с поиском по названию)",
+            allowableValues = {"name", "price", "weight", "stock", "created", "relevance"},
             example = "name")
     private String sortBy;
 
@@ -0,0 +1,22 @@
+package com.jewelry.workshop.domain.model.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Строка выгрузки продаж: одно изделие за один день
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesExportRowDTO {
+    private LocalDate day;
+    private Long productId;
+    private String sku;
+    private String productName;
+    private Long orderCount;
+    private Long quantity;
+    private BigDecimal revenue;
+}
@@ -3,11 +3,16 @@ package com.jewelry.workshop.domain.model.dto.user;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
+import com.jewelry.workshop.domain.model.entity.User;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "DTO для ответа с информацией о пользователе")
 public class UserResponseDTO {
@@ -40,4 +45,22 @@ public class UserResponseDTO {
 
     @Schema(description = "ID связанного сотрудника (если есть)", example = "1")
     private Long employeeId;
-}
\ No newline at end of file
+
+    // Проекция из JPQL по users LEFT JOIN clients LEFT JOIN employees
+    public UserResponseDTO(Long id, String username, String email, User.Role role, Boolean enabled,
+                           Instant createdAt, Instant updatedAt, Long clientId, Long employeeId) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role.name();
+        this.enabled = Boolean.TRUE.equals(enabled);
+        this.createdAt = toLocalDateTime(createdAt);
+        this.updatedAt = toLocalDateTime(updatedAt);
+        this.clientId = clientId;
+        this.employeeId = employeeId;
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
+}
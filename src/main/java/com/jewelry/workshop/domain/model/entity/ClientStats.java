@@ -0,0 +1,34 @@
+package com.jewelry.workshop.domain.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Строки изменяются только приращениями из ClientStatsRepository
+@Entity
+@Table(name = "client_stats")
+@Getter
+@Setter
+@ToString
+public class ClientStats {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "total_spent", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalSpent = BigDecimal.ZERO;
+
+    @Column(name = "last_order_at")
+    private Instant lastOrderAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.jewelry.workshop.domain.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "inventory_leases")
+@Getter
+@Setter
+@ToString(exclude = "product")
+public class InventoryLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "node_id", length = 64, nullable = false)
+    private String nodeId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity = 0;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+}
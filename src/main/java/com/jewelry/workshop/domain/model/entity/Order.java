@@ -13,8 +13,27 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
+// Графы загрузки для выдачи заказов: ToOne-связи подтягиваются JOIN в том же запросе.
+// Позиции в постраничных запросах не присоединяются (Hibernate резал бы страницу в памяти),
+// а догружаются одним запросом на страницу — см. OrderRepository.fetchItemsWithProducts.
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(
+        name = Order.GRAPH_WITH_CLIENT,
+        attributeNodes = @NamedAttributeNode(value = "client", subgraph = "client"),
+        subgraphs = @NamedSubgraph(name = "client", attributeNodes = @NamedAttributeNode("user"))
+)
+@NamedEntityGraph(
+        name = Order.GRAPH_DETAILS,
+        attributeNodes = {
+                @NamedAttributeNode(value = "client", subgraph = "client"),
+                @NamedAttributeNode(value = "orderItems", subgraph = "items")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "client", attributeNodes = @NamedAttributeNode("user")),
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product"))
+        }
+)
 @Getter
 @Setter
 @ToString(exclude = {"client", "orderItems"})
@@ -63,6 +82,9 @@ public class Order {
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
 
+    public static final String GRAPH_WITH_CLIENT = "Order.withClient";
+    public static final String GRAPH_DETAILS = "Order.details";
+
     // Константы для статусов заказа
     public static final String STATUS_PENDING = "PENDING";
     public static final String STATUS_PROCESSING = "PROCESSING";
@@ -0,0 +1,53 @@
+package com.jewelry.workshop.domain.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Строки изменяются только приращениями из SalesRollupRepository
+@Entity
+@Table(name = "sales_daily")
+@Getter
+@Setter
+@ToString
+public class SalesDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "stripe", nullable = false)
+    private Short stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private Long cancelledCount = 0L;
+
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount = 0L;
+
+    @Column(name = "total_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "final_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal finalAmount = BigDecimal.ZERO;
+
+    @Column(name = "completed_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal completedAmount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
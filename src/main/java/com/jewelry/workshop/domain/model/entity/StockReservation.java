@@ -0,0 +1,71 @@
+package com.jewelry.workshop.domain.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_reservations")
+@Getter
+@Setter
+@ToString(exclude = {"order", "product"})
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "status", length = 10, nullable = false)
+    private String status = STATUS_HELD;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    // Константы для статусов резерва
+    public static final String STATUS_HELD = "HELD";
+    public static final String STATUS_RELEASED = "RELEASED";
+    public static final String STATUS_SETTLED = "SETTLED";
+
+    public StockReservation() {
+    }
+
+    public StockReservation(Order order, Product product, Integer quantity, Instant expiresAt) {
+        this.order = order;
+        this.product = product;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isHeld() {
+        return STATUS_HELD.equals(status);
+    }
+
+    public boolean isSettled() {
+        return STATUS_SETTLED.equals(status);
+    }
+}
@@ -1,5 +1,7 @@
 package com.jewelry.workshop.domain.repository;
 
+import com.jewelry.workshop.domain.model.dto.client.ClientProfileDTO;
+import com.jewelry.workshop.domain.model.dto.client.ClientResponseDTO;
 import com.jewelry.workshop.domain.model.entity.Client;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,48 +15,39 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientRepositoryCustom {
 
     Optional<Client> findByUserId(Long userId);
     Optional<Client> findByPhone(String phone);
 
     void deleteByUserId(Long userId);
 
+    // Список клиентов с email и id пользователя одним запросом, без ленивой загрузки Client.user
+    @Query(value = """
+        SELECT new com.jewelry.workshop.domain.model.dto.client.ClientResponseDTO(
+            c.id, c.firstName, c.lastName, c.patronymic, u.email, c.phone, c.isPermanent, u.id,
+            c.createdAt, c.updatedAt)
+        FROM Client c JOIN c.user u
+        """, countQuery = "SELECT COUNT(c) FROM Client c")
+    Page<ClientResponseDTO> findResponsePage(Pageable pageable);
+
+    // Профиль клиента со статистикой заказов одним запросом
+    @Query("""
+        SELECT new com.jewelry.workshop.domain.model.dto.client.ClientProfileDTO(
+            c.firstName, c.lastName, c.patronymic, u.email, c.phone, c.isPermanent,
+            s.orderCount, s.totalSpent, s.lastOrderAt)
+        FROM Client c JOIN c.user u
+        LEFT JOIN ClientStats s ON s.clientId = c.id
+        WHERE u.id = :userId
+        """)
+    Optional<ClientProfileDTO> findProfileByUserId(@Param("userId") Long userId);
+
     @Query("SELECT COUNT(c) FROM Client c WHERE c.isPermanent = true")
     Long countPermanentClients();
 
     @Query("SELECT COUNT(c) FROM Client c WHERE c.createdAt >= :date")
     Long countNewClientsSince(@Param("date") Instant date);
 
-    @Query("""
-    SELECT c FROM Client c
-    WHERE
-    (:lastName IS NULL OR FUNCTION('LOWER', CAST(c.lastName AS text)) LIKE LOWER(CONCAT('%', CAST(:lastName AS text), '%')))
-    AND (:firstName IS NULL OR FUNCTION('LOWER', CAST(c.firstName AS text)) LIKE LOWER(CONCAT('%', CAST(:firstName AS text), '%')))
-    AND (:phonePattern IS NULL OR c.phone LIKE :phonePattern)
-    AND (:isPermanent IS NULL OR c.isPermanent = :isPermanent)
-    AND (:minOrders IS NULL OR c.id IN (
-        SELECT o.client.id FROM Order o
-        GROUP BY o.client.id
-        HAVING COUNT(o) >= :minOrders
-    ))
-    ORDER BY
-    CASE WHEN :sortBy = 'name' THEN c.lastName END,
-    CASE WHEN :sortBy = 'created' THEN c.createdAt END DESC,
-    CASE WHEN :sortBy = 'orders' THEN (
-        SELECT COUNT(o2) FROM Order o2 WHERE o2.client.id = c.id
-    ) END DESC
-    """)
-    Page<Client> findClientsByCriteria(
-            @Param("lastName") String lastName,
-            @Param("firstName") String firstName,
-            @Param("phonePattern") String phonePattern,
-            @Param("isPermanent") Boolean isPermanent,
-            @Param("minOrders") Integer minOrders,
-            @Param("sortBy") String sortBy,
-            Pageable pageable
-    );
-
     @Query("""
     SELECT c,
        COUNT(o) as totalOrders,
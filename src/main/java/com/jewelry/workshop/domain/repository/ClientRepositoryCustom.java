@@ -0,0 +1,19 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.dto.client.ClientResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ClientRepositoryCustom {
+
+    // Поиск клиентов: в запрос попадают только заданные фильтры; sortBy — name, created, orders или null
+    Page<ClientResponseDTO> searchClients(
+            String lastName,
+            String firstName,
+            String phone,
+            Boolean isPermanent,
+            Integer minOrders,
+            String sortBy,
+            Pageable pageable
+    );
+}
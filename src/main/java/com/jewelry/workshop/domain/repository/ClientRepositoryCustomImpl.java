@@ -0,0 +1,85 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.dto.client.ClientResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.*;
+
+public class ClientRepositoryCustomImpl implements ClientRepositoryCustom {
+
+    private static final Map<String, String> ORDER_BY = Map.of(
+            "name", " ORDER BY c.lastName, c.firstName, c.id",
+            "created", " ORDER BY c.createdAt DESC, c.id DESC",
+            "orders", " ORDER BY COALESCE(s.orderCount, 0) DESC, c.id"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Число заказов берётся из client_stats, а не подзапросом по orders. Подстрочные фильтры по ФИО
+    // и телефону обслуживаются триграммными индексами (V12)
+    @Override
+    public Page<ClientResponseDTO> searchClients(
+            String lastName,
+            String firstName,
+            String phone,
+            Boolean isPermanent,
+            Integer minOrders,
+            String sortBy,
+            Pageable pageable
+    ) {
+        Map<String, Object> params = new HashMap<>();
+        List<String> predicates = new ArrayList<>();
+        boolean joinStats = "orders".equals(sortBy);
+
+        if (lastName != null && !lastName.isBlank()) {
+            predicates.add("LOWER(c.lastName) LIKE :lastName");
+            params.put("lastName", "%" + lastName.trim().toLowerCase() + "%");
+        }
+        if (firstName != null && !firstName.isBlank()) {
+            predicates.add("LOWER(c.firstName) LIKE :firstName");
+            params.put("firstName", "%" + firstName.trim().toLowerCase() + "%");
+        }
+        if (phone != null && !phone.isBlank()) {
+            predicates.add("c.phone LIKE :phone");
+            params.put("phone", "%" + phone.trim() + "%");
+        }
+        if (isPermanent != null) {
+            predicates.add("c.isPermanent = :isPermanent");
+            params.put("isPermanent", isPermanent);
+        }
+        // Порог не выше нуля выполняется для любого клиента, в том числе без строки статистики
+        if (minOrders != null && minOrders > 0) {
+            predicates.add("s.orderCount >= :minOrders");
+            params.put("minOrders", minOrders.longValue());
+            joinStats = true;
+        }
+
+        String where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        String stats = joinStats ? " LEFT JOIN ClientStats s ON s.clientId = c.id" : "";
+        String orderBy = ORDER_BY.getOrDefault(sortBy, " ORDER BY c.id");
+
+        TypedQuery<ClientResponseDTO> select = entityManager.createQuery("""
+                SELECT new com.jewelry.workshop.domain.model.dto.client.ClientResponseDTO(
+                    c.id, c.firstName, c.lastName, c.patronymic, u.email, c.phone, c.isPermanent, u.id,
+                    c.createdAt, c.updatedAt)
+                FROM Client c JOIN c.user u""" + stats + where + orderBy, ClientResponseDTO.class);
+        TypedQuery<Long> count = entityManager.createQuery("SELECT COUNT(c) FROM Client c" + stats + where, Long.class);
+        params.forEach((name, value) -> {
+            select.setParameter(name, value);
+            count.setParameter(name, value);
+        });
+
+        List<ClientResponseDTO> content = select
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        // COUNT(*) не нужен, если страница неполная и общее число уже известно
+        return PageableExecutionUtils.getPage(content, pageable, count::getSingleResult);
+    }
+}
@@ -0,0 +1,31 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.entity.ClientStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ClientStatsRepository extends JpaRepository<ClientStats, Long> {
+
+    // Добавляет оформленные заказы к статистике их клиентов; строки заказов должны быть уже записаны
+    @Modifying
+    @Query(value = """
+        INSERT INTO client_stats (client_id, order_count, total_spent, last_order_at, updated_at)
+        SELECT o.client_id, COUNT(*), COALESCE(SUM(o.total_amount), 0), MAX(o.order_datetime), CURRENT_TIMESTAMP
+        FROM orders o
+        WHERE o.id IN (:orderIds)
+        GROUP BY o.client_id
+        ORDER BY o.client_id
+        ON CONFLICT (client_id) DO UPDATE SET
+            order_count = client_stats.order_count + EXCLUDED.order_count,
+            total_spent = client_stats.total_spent + EXCLUDED.total_spent,
+            last_order_at = GREATEST(client_stats.last_order_at, EXCLUDED.last_order_at),
+            updated_at = CURRENT_TIMESTAMP
+        """, nativeQuery = true)
+    int recordOrders(@Param("orderIds") Collection<Long> orderIds);
+}
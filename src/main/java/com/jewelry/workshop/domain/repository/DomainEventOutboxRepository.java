@@ -0,0 +1,35 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.entity.DomainEventOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DomainEventOutboxRepository extends JpaRepository<DomainEventOutboxMessage, Long> {
+
+    // Публикует один узел: при параллельных пачках события одного ключа могли бы обогнать друг друга.
+    // Блокировка снимается вместе с транзакцией пачки
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryLockRelay(@Param("lockKey") long lockKey);
+
+    // Вызывается под блокировкой tryLockRelay; SKIP LOCKED не даёт ждать строки, которые ещё держит
+    // транзакция предыдущего владельца блокировки
+    @Query(value = """
+        SELECT * FROM domain_event_outbox
+        WHERE published_at IS NULL
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<DomainEventOutboxMessage> lockUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM DomainEventOutboxMessage m WHERE m.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
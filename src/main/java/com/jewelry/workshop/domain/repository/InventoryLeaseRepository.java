@@ -0,0 +1,48 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.entity.InventoryLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryLeaseRepository extends JpaRepository<InventoryLease, Long> {
+
+    @Query("""
+        SELECT l.product.id, SUM(l.quantity)
+        FROM InventoryLease l
+        WHERE l.product.id IN :productIds AND l.expiresAt > :now
+        GROUP BY l.product.id
+        """)
+    List<Object[]> sumActiveByProductIds(@Param("productIds") Collection<Long> productIds, @Param("now") Instant now);
+
+    // Просроченная аренда узла не суммируется с новой, а заменяется ею
+    @Modifying
+    @Query(value = """
+        INSERT INTO inventory_leases (product_id, node_id, quantity, expires_at, updated_at)
+        VALUES (:productId, :nodeId, :quantity, :expiresAt, CURRENT_TIMESTAMP)
+        ON CONFLICT (product_id, node_id) DO UPDATE SET
+            quantity = CASE WHEN inventory_leases.expires_at > CURRENT_TIMESTAMP
+                            THEN inventory_leases.quantity + EXCLUDED.quantity
+                            ELSE EXCLUDED.quantity END,
+            expires_at = EXCLUDED.expires_at,
+            updated_at = CURRENT_TIMESTAMP
+        """, nativeQuery = true)
+    int grant(@Param("productId") Long productId,
+              @Param("nodeId") String nodeId,
+              @Param("quantity") int quantity,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query(value = """
+        UPDATE inventory_leases SET quantity = GREATEST(quantity - :quantity, 0), updated_at = CURRENT_TIMESTAMP
+        WHERE product_id = :productId AND node_id = :nodeId
+        """, nativeQuery = true)
+    int shrink(@Param("productId") Long productId, @Param("nodeId") String nodeId, @Param("quantity") long quantity);
+}
@@ -1,6 +1,9 @@
 package com.jewelry.workshop.domain.repository;
 
+import com.jewelry.workshop.domain.model.dto.material.MaterialResponseDTO;
 import com.jewelry.workshop.domain.model.entity.Material;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,4 +21,12 @@ public interface MaterialRepository extends JpaRepository<Material, Long> {
         WHERE pm.material.id = :materialId
         """)
     boolean isMaterialInUse(@Param("materialId") Long materialId);
-}
\ No newline at end of file
+
+    // Список для чтения: DTO строится прямо из выборки, сущности не попадают в persistence context
+    @Query(value = """
+        SELECT new com.jewelry.workshop.domain.model.dto.material.MaterialResponseDTO(
+            m.id, m.name, m.description, m.createdAt, m.updatedAt)
+        FROM Material m
+        """, countQuery = "SELECT COUNT(m) FROM Material m")
+    Page<MaterialResponseDTO> findResponsePage(Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.jewelry.workshop.domain.repository;
 
+import com.jewelry.workshop.domain.model.dto.orderitem.OrderItemResponseDTO;
 import com.jewelry.workshop.domain.model.entity.OrderItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,8 @@ import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Pageable;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
@@ -25,4 +28,14 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
             @Param("endDate") Instant endDate,
             Pageable pageable
     );
+
+    // Позиции страницы заказов, спроецированные в DTO; orderId в DTO нужен для раскладки по заказам
+    @Query("""
+            SELECT new com.jewelry.workshop.domain.model.dto.orderitem.OrderItemResponseDTO(
+                oi.order.id, oi.id, p.id, p.name, p.sku, oi.quantity, oi.unitPrice, oi.totalPrice, p.weight)
+            FROM OrderItem oi JOIN oi.product p
+            WHERE oi.order.id IN :orderIds
+            ORDER BY oi.id
+            """)
+    List<OrderItemResponseDTO> findResponseRowsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
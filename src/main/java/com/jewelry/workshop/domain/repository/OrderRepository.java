@@ -1,9 +1,17 @@
 package com.jewelry.workshop.domain.repository;
 
+import com.jewelry.workshop.domain.model.dto.order.OrderExportRowDTO;
+import com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO;
 import com.jewelry.workshop.domain.model.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,15 +19,65 @@ import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(String status);
     List<Order> findByOrderDatetimeBetween(LocalDateTime start, LocalDateTime end);
 
-    Page<Order> findByClientIdAndStatusNot(Long clientId, String status, Pageable pageable);
-    Page<Order> findByClientId(Long ClientId, Pageable pageable);
+    // Списки заказов для чтения проецируются сразу в DTO вместе с клиентом; позиции —
+    // OrderItemRepository.findResponseRowsByOrderIds
+    String ORDER_RESPONSE_SELECT = """
+        SELECT new com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO(
+            o.id, o.orderNumber, o.status, o.totalAmount, o.discountAmount, o.finalAmount, o.notes,
+            o.orderDatetime, o.completedAt, o.createdAt, o.updatedAt,
+            c.id, c.firstName, c.lastName, c.patronymic, u.email, c.phone, c.isPermanent, u.id,
+            c.createdAt, c.updatedAt)
+        FROM Order o JOIN o.client c JOIN c.user u
+        """;
+
+    @Query(value = ORDER_RESPONSE_SELECT, countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderResponseDTO> findResponsePage(Pageable pageable);
+
+    @Query(value = ORDER_RESPONSE_SELECT + """
+        WHERE c.id = :clientId
+        ORDER BY o.orderDatetime DESC, o.id DESC
+        """, countQuery = "SELECT COUNT(o) FROM Order o WHERE o.client.id = :clientId")
+    Page<OrderResponseDTO> findClientResponsePage(@Param("clientId") Long clientId, Pageable pageable);
+
+    @Query(value = ORDER_RESPONSE_SELECT + """
+        WHERE c.id = :clientId AND o.status <> :excludedStatus
+        ORDER BY o.orderDatetime DESC, o.id DESC
+        """, countQuery = """
+        SELECT COUNT(o) FROM Order o WHERE o.client.id = :clientId AND o.status <> :excludedStatus
+        """)
+    Page<OrderResponseDTO> findClientResponsePageExcludingStatus(
+            @Param("clientId") Long clientId,
+            @Param("excludedStatus") String excludedStatus,
+            Pageable pageable
+    );
+
+    @EntityGraph(Order.GRAPH_DETAILS)
+    Optional<Order> findDetailedById(Long id);
+
+    // Смена статуса под блокировкой строки: параллельная отмена того же заказа ждёт и видит новый статус,
+    // поэтому агрегаты и событие OrderCancelled применяются один раз
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // Позиции с изделиями для уже загруженной страницы заказов: один запрос вместо обхода ленивых связей
+    @Query("""
+        SELECT o FROM Order o
+        LEFT JOIN FETCH o.orderItems oi
+        LEFT JOIN FETCH oi.product
+        WHERE o IN :orders
+        """)
+    List<Order> fetchItemsWithProducts(@Param("orders") Collection<Order> orders);
 
     @Query("""
         SELECT DATE(CAST(o.orderDatetime AS date)) as orderDate, 
@@ -49,15 +107,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("endDate") Instant endDate
     );
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.client.id = :clientId")
-    Long countOrdersByClientId(@Param("clientId") Long clientId);
-
-    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.client.id = :clientId")
-    BigDecimal getTotalSpentByClientId(@Param("clientId") Long clientId);
-
-    @Query("SELECT MAX(o.orderDatetime) FROM Order o WHERE o.client.id = :clientId")
-    LocalDateTime getLastOrderDateByClientId(@Param("clientId") Long clientId);
-
     @Query("""
         SELECT o FROM Order o 
         WHERE (:clientId IS NULL OR o.client.id = :clientId)
@@ -77,4 +126,71 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("maxAmount") BigDecimal maxAmount,
             Pageable pageable
     );
-}
\ No newline at end of file
+
+    // Keyset-пагинация по (order_datetime, id) DESC; избыточное условие "<=" даёт индексу границу диапазона
+    @EntityGraph(Order.GRAPH_WITH_CLIENT)
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.orderDatetime <= :afterDatetime
+        AND (o.orderDatetime < :afterDatetime OR o.id < :afterId)
+        ORDER BY o.orderDatetime DESC, o.id DESC
+        """)
+    List<Order> findPageAfter(
+            @Param("afterDatetime") Instant afterDatetime,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @EntityGraph(Order.GRAPH_WITH_CLIENT)
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.client.id = :clientId
+        AND o.orderDatetime <= :afterDatetime
+        AND (o.orderDatetime < :afterDatetime OR o.id < :afterId)
+        ORDER BY o.orderDatetime DESC, o.id DESC
+        """)
+    List<Order> findClientPageAfter(
+            @Param("clientId") Long clientId,
+            @Param("afterDatetime") Instant afterDatetime,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @EntityGraph(Order.GRAPH_WITH_CLIENT)
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.client.id = :clientId
+        AND o.status <> :excludedStatus
+        AND o.orderDatetime <= :afterDatetime
+        AND (o.orderDatetime < :afterDatetime OR o.id < :afterId)
+        ORDER BY o.orderDatetime DESC, o.id DESC
+        """)
+    List<Order> findClientPageAfterExcludingStatus(
+            @Param("clientId") Long clientId,
+            @Param("excludedStatus") String excludedStatus,
+            @Param("afterDatetime") Instant afterDatetime,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // Выгрузка за период: курсор читает строки порциями по fetch size, а проекция в DTO
+    // не попадает в persistence context, поэтому память не растёт с объёмом выгрузки
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.jewelry.workshop.domain.model.dto.order.OrderExportRowDTO(
+            o.id, o.orderNumber, o.orderDatetime, o.status, c.id, c.lastName, c.firstName, c.phone,
+            o.totalAmount, o.discountAmount, o.finalAmount, o.completedAt)
+        FROM Order o JOIN o.client c
+        WHERE o.orderDatetime >= :start AND o.orderDatetime < :end
+          AND (:status IS NULL OR o.status = :status)
+        ORDER BY o.orderDatetime, o.id
+        """)
+    Stream<OrderExportRowDTO> streamForExport(
+            @Param("start") Instant start,
+            @Param("end") Instant end,
+            @Param("status") String status
+    );
+}
@@ -1,9 +1,12 @@
 package com.jewelry.workshop.domain.repository;
 
+import com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO;
 import com.jewelry.workshop.domain.model.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,11 +14,12 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     boolean existsBySku(String sku);
 
@@ -39,8 +43,23 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             Pageable pageable
     );
 
-    @Query("""
-    SELECT p FROM Product p WHERE 
+    // Проекция в DTO: страница каталога для чтения не загружает управляемые сущности
+    @Query(value = """
+    SELECT new com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO(
+        p.id, p.name, p.description, p.sku, p.weight, p.price, p.type, p.inStock, p.isAvailable,
+        p.createdAt, p.updatedAt)
+    FROM Product p WHERE 
+    (:roleId <> 'CLIENT' OR p.isAvailable = true) AND 
+    (:name IS NULL OR :name = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND 
+    (:type IS NULL OR :type = '' OR p.type = :type) AND 
+    (:minPrice IS NULL OR p.price >= :minPrice) AND 
+    (:maxPrice IS NULL OR p.price <= :maxPrice) AND 
+    (:minWeight IS NULL OR p.weight >= :minWeight) AND 
+    (:maxWeight IS NULL OR p.weight <= :maxWeight) AND 
+    (:minStock IS NULL OR p.inStock >= :minStock) AND 
+    (:isAvailable IS NULL OR p.isAvailable = :isAvailable)
+    """, countQuery = """
+    SELECT COUNT(p) FROM Product p WHERE 
     (:roleId <> 'CLIENT' OR p.isAvailable = true) AND 
     (:name IS NULL OR :name = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND 
     (:type IS NULL OR :type = '' OR p.type = :type) AND 
@@ -51,7 +70,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     (:minStock IS NULL OR p.inStock >= :minStock) AND 
     (:isAvailable IS NULL OR p.isAvailable = :isAvailable)
     """)
-    Page<Product> searchProducts(
+    Page<ProductResponseDTO> searchProducts(
             @Param("roleId") String roleId,
             @Param("name") String name,
             @Param("type") String type,
@@ -65,10 +84,22 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     );
 
 
-    @Query("SELECT p FROM Product p WHERE p.inStock <= :threshold")
-    Page<Product> findByInStockLessThanEqual(@Param("threshold") Integer threshold, Pageable pageable);
+    @Query(value = """
+        SELECT new com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO(
+            p.id, p.name, p.description, p.sku, p.weight, p.price, p.type, p.inStock, p.isAvailable,
+            p.createdAt, p.updatedAt)
+        FROM Product p
+        WHERE p.inStock <= :threshold
+        ORDER BY p.inStock, p.id
+        """, countQuery = "SELECT COUNT(p) FROM Product p WHERE p.inStock <= :threshold")
+    Page<ProductResponseDTO> findLowStockPage(@Param("threshold") Integer threshold, Pageable pageable);
 
     @Modifying
     @Query("UPDATE Product p SET p.inStock = p.inStock - :quantity WHERE p.id = :productId AND p.inStock >= :quantity")
     int decreaseStockIfAvailable(@Param("productId") Long productId, @Param("quantity") Integer quantity);
-}
\ No newline at end of file
+
+    // Блокировка в порядке возрастания id, чтобы параллельные заказы не приводили к взаимоблокировкам
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,31 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchDTO;
+import com.jewelry.workshop.domain.model.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Страница каталога после записи (afterValue, afterId) в порядке (sortField, id); afterId == null — первая страница
+    List<Product> findPageAfter(
+            String roleId,
+            ProductSearchDTO criteria,
+            String sortField,
+            boolean descending,
+            Comparable<?> afterValue,
+            Long afterId,
+            int limit
+    );
+
+    // Поиск по criteria.name через tsvector и pg_trgm; sortField == null — по релевантности
+    Page<Product> searchByText(
+            String roleId,
+            ProductSearchDTO criteria,
+            String sortField,
+            boolean descending,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,192 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchDTO;
+import com.jewelry.workshop.domain.model.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "name", "p.name",
+            "price", "p.price",
+            "weight", "p.weight",
+            "inStock", "p.in_stock",
+            "createdAt", "p.created_at"
+    );
+
+    // Вес полнотекстового совпадения выше триграммного: точное слово важнее похожего
+    private static final String RANK = """
+            (2 * ts_rank_cd(p.search_vector, websearch_to_tsquery('russian', :q))
+             + word_similarity(:q, p.name)
+             + similarity(coalesce(p.sku, ''), :q)
+             + 0.5 * word_similarity(:q, coalesce(p.description, '')))""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findPageAfter(
+            String roleId,
+            ProductSearchDTO criteria,
+            String sortField,
+            boolean descending,
+            Comparable<?> afterValue,
+            Long afterId,
+            int limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> p = query.from(Product.class);
+
+        // В отличие от searchProducts в запрос попадают только заданные фильтры,
+        // чтобы планировщик мог выбрать индекс (поле сортировки, id)
+        List<Predicate> predicates = new ArrayList<>();
+        if ("CLIENT".equals(roleId)) {
+            predicates.add(cb.isTrue(p.get("isAvailable")));
+        }
+        if (criteria.getName() != null && !criteria.getName().isBlank()) {
+            predicates.add(cb.like(cb.lower(p.get("name")), "%" + criteria.getName().toLowerCase() + "%"));
+        }
+        if (criteria.getType() != null && !criteria.getType().isBlank()) {
+            predicates.add(cb.equal(p.get("type"), criteria.getType()));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(p.get("price"), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(p.get("price"), criteria.getMaxPrice()));
+        }
+        if (criteria.getMinWeight() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(p.get("weight"), criteria.getMinWeight()));
+        }
+        if (criteria.getMaxWeight() != null) {
+            predicates.add(cb.lessThanOrEqualTo(p.get("weight"), criteria.getMaxWeight()));
+        }
+        if (criteria.getMinStock() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(p.get("inStock"), criteria.getMinStock()));
+        }
+        if (criteria.getIsAvailable() != null) {
+            predicates.add(cb.equal(p.get("isAvailable"), criteria.getIsAvailable()));
+        }
+        if (afterId != null) {
+            predicates.add(seekPredicate(cb, p, sortField, descending, afterValue, afterId));
+        }
+
+        query.select(p)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(
+                        descending ? cb.desc(p.get(sortField)) : cb.asc(p.get(sortField)),
+                        descending ? cb.desc(p.get("id")) : cb.asc(p.get("id"))
+                );
+
+        // Страница только читается: без снимков состояния для dirty checking
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // (field, id) > (value, lastId) для ASC и < для DESC, с явной границей диапазона по полю сортировки
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(
+            CriteriaBuilder cb,
+            Root<Product> p,
+            String sortField,
+            boolean descending,
+            Comparable afterValue,
+            Long afterId
+    ) {
+        Path<Comparable> field = p.get(sortField);
+        Path<Long> id = p.get("id");
+        if (descending) {
+            return cb.and(
+                    cb.lessThanOrEqualTo(field, afterValue),
+                    cb.or(cb.lessThan(field, afterValue), cb.lessThan(id, afterId))
+            );
+        }
+        return cb.and(
+                cb.greaterThanOrEqualTo(field, afterValue),
+                cb.or(cb.greaterThan(field, afterValue), cb.greaterThan(id, afterId))
+        );
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Product> searchByText(
+            String roleId,
+            ProductSearchDTO criteria,
+            String sortField,
+            boolean descending,
+            Pageable pageable
+    ) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("q", criteria.getName().trim());
+
+        StringBuilder where = new StringBuilder("""
+                 WHERE (p.search_vector @@ websearch_to_tsquery('russian', :q)
+                    OR p.name ILIKE '%' || :q || '%'
+                    OR :q <% p.name
+                    OR p.sku % :q
+                    OR :q <% p.description)""");
+        if ("CLIENT".equals(roleId)) {
+            where.append(" AND p.is_available = TRUE");
+        }
+        if (criteria.getType() != null && !criteria.getType().isBlank()) {
+            where.append(" AND p.type = :type");
+            params.put("type", criteria.getType());
+        }
+        if (criteria.getMinPrice() != null) {
+            where.append(" AND p.price >= :minPrice");
+            params.put("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            where.append(" AND p.price <= :maxPrice");
+            params.put("maxPrice", criteria.getMaxPrice());
+        }
+        if (criteria.getMinWeight() != null) {
+            where.append(" AND p.weight >= :minWeight");
+            params.put("minWeight", criteria.getMinWeight());
+        }
+        if (criteria.getMaxWeight() != null) {
+            where.append(" AND p.weight <= :maxWeight");
+            params.put("maxWeight", criteria.getMaxWeight());
+        }
+        if (criteria.getMinStock() != null) {
+            where.append(" AND p.in_stock >= :minStock");
+            params.put("minStock", criteria.getMinStock());
+        }
+        if (criteria.getIsAvailable() != null) {
+            where.append(" AND p.is_available = :isAvailable");
+            params.put("isAvailable", criteria.getIsAvailable());
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        String orderBy = sortField == null
+                ? " ORDER BY " + RANK + " DESC, p.id"
+                : " ORDER BY " + Objects.requireNonNull(SORT_COLUMNS.get(sortField)) + direction + ", p.id" + direction;
+
+        Query select = entityManager.createNativeQuery("SELECT p.* FROM products p" + where + orderBy, Product.class);
+        Query count = entityManager.createNativeQuery("SELECT COUNT(*) FROM products p" + where);
+        params.forEach((name, value) -> {
+            select.setParameter(name, value);
+            count.setParameter(name, value);
+        });
+
+        List<Product> content = select
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        long total = ((Number) count.getSingleResult()).longValue();
+        return new PageImpl<>(content, pageable, total);
+    }
+}
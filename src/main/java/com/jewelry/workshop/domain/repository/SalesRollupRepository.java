@@ -0,0 +1,178 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.entity.SalesDailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Дневные агрегаты продаж (sales_daily, sales_daily_product, sales_daily_client).
+// Приращения считаются по строкам orders/order_items переданных заказов; sign = 1 добавляет заказы,
+// sign = -1 вычитает. ORDER BY в INSERT ... SELECT фиксирует порядок блокировки строк агрегатов.
+// sales_daily и sales_daily_product разбиты на 16 полос по id заказа; чтения суммируют полосы.
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesDailyRollup, Long> {
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO sales_daily (day, stripe, order_count, cancelled_count, total_amount, discount_amount,
+                                 final_amount, updated_at)
+        SELECT (COALESCE(o.order_datetime, o.created_at) AT TIME ZONE 'UTC')::date, (o.id % 16)::smallint,
+               :sign * COUNT(*), :cancelled * COUNT(*),
+               :sign * COALESCE(SUM(o.total_amount), 0),
+               :sign * COALESCE(SUM(o.discount_amount), 0),
+               :sign * COALESCE(SUM(o.final_amount), 0),
+               CURRENT_TIMESTAMP
+        FROM orders o
+        WHERE o.id IN (:orderIds)
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (day, stripe) DO UPDATE SET
+            order_count = sales_daily.order_count + EXCLUDED.order_count,
+            cancelled_count = sales_daily.cancelled_count + EXCLUDED.cancelled_count,
+            total_amount = sales_daily.total_amount + EXCLUDED.total_amount,
+            discount_amount = sales_daily.discount_amount + EXCLUDED.discount_amount,
+            final_amount = sales_daily.final_amount + EXCLUDED.final_amount,
+            updated_at = CURRENT_TIMESTAMP
+        """, nativeQuery = true)
+    int applyOrderTotals(@Param("orderIds") Collection<Long> orderIds,
+                         @Param("sign") int sign,
+                         @Param("cancelled") int cancelled);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO sales_daily (day, stripe, completed_count, completed_amount, updated_at)
+        SELECT (COALESCE(o.order_datetime, o.created_at) AT TIME ZONE 'UTC')::date, (o.id % 16)::smallint,
+               :sign * COUNT(*), :sign * COALESCE(SUM(o.final_amount), 0), CURRENT_TIMESTAMP
+        FROM orders o
+        WHERE o.id IN (:orderIds)
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (day, stripe) DO UPDATE SET
+            completed_count = sales_daily.completed_count + EXCLUDED.completed_count,
+            completed_amount = sales_daily.completed_amount + EXCLUDED.completed_amount,
+            updated_at = CURRENT_TIMESTAMP
+        """, nativeQuery = true)
+    int applyCompleted(@Param("orderIds") Collection<Long> orderIds, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO sales_daily_product (day, product_id, stripe, order_count, quantity, revenue)
+        SELECT (COALESCE(o.order_datetime, o.created_at) AT TIME ZONE 'UTC')::date, oi.product_id,
+               (o.id % 16)::smallint,
+               :sign * COUNT(DISTINCT o.id), :sign * SUM(oi.quantity), :sign * SUM(oi.total_price)
+        FROM orders o
+        JOIN order_items oi ON oi.order_id = o.id
+        WHERE o.id IN (:orderIds)
+        GROUP BY 1, 2, 3
+        ORDER BY 1, 2, 3
+        ON CONFLICT (day, product_id, stripe) DO UPDATE SET
+            order_count = sales_daily_product.order_count + EXCLUDED.order_count,
+            quantity = sales_daily_product.quantity + EXCLUDED.quantity,
+            revenue = sales_daily_product.revenue + EXCLUDED.revenue
+        """, nativeQuery = true)
+    int applyProductSales(@Param("orderIds") Collection<Long> orderIds, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO sales_daily_client (day, client_id, order_count, final_amount)
+        SELECT (COALESCE(o.order_datetime, o.created_at) AT TIME ZONE 'UTC')::date, o.client_id,
+               :sign * COUNT(*), :sign * COALESCE(SUM(o.final_amount), 0)
+        FROM orders o
+        WHERE o.id IN (:orderIds)
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (day, client_id) DO UPDATE SET
+            order_count = sales_daily_client.order_count + EXCLUDED.order_count,
+            final_amount = sales_daily_client.final_amount + EXCLUDED.final_amount
+        """, nativeQuery = true)
+    int applyClientSales(@Param("orderIds") Collection<Long> orderIds, @Param("sign") int sign);
+
+    // [количество заказов, выручка, скидки]
+    @Query("""
+        SELECT COALESCE(SUM(r.orderCount), 0), COALESCE(SUM(r.finalAmount), 0), COALESCE(SUM(r.discountAmount), 0)
+        FROM SalesDailyRollup r
+        WHERE r.day BETWEEN :startDay AND :endDay
+        """)
+    List<Object[]> sumTotals(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    // [количество заказов, выручка] за всё время: строк не больше 16 на день истории
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0), COALESCE(SUM(r.finalAmount), 0) FROM SalesDailyRollup r")
+    List<Object[]> sumAllTimeTotals();
+
+    @Query(value = """
+        SELECT COUNT(*) FROM (
+            SELECT client_id FROM sales_daily_client
+            WHERE day BETWEEN :startDay AND :endDay
+            GROUP BY client_id
+            HAVING SUM(order_count) > 0
+        ) active
+        """, nativeQuery = true)
+    long countClientsWithOrders(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    @Query(value = """
+        SELECT client_id FROM sales_daily_client
+        WHERE day BETWEEN :startDay AND :endDay
+        GROUP BY client_id
+        HAVING SUM(order_count) > 0
+        ORDER BY SUM(final_amount) DESC, client_id
+        LIMIT 1
+        """, nativeQuery = true)
+    Long findTopClientIdByRevenue(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    @Query(value = """
+        SELECT client_id FROM sales_daily_client
+        WHERE day BETWEEN :startDay AND :endDay
+        GROUP BY client_id
+        HAVING SUM(order_count) > 0
+        ORDER BY SUM(order_count) DESC, SUM(final_amount) DESC, client_id
+        LIMIT 1
+        """, nativeQuery = true)
+    Long findTopClientIdByOrders(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    @Query(value = """
+        SELECT product_id FROM sales_daily_product
+        WHERE day BETWEEN :startDay AND :endDay
+        GROUP BY product_id
+        HAVING SUM(quantity) > 0
+        ORDER BY SUM(quantity) DESC, product_id
+        LIMIT 1
+        """, nativeQuery = true)
+    Long findTopProductIdByQuantity(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    // [product_id, количество заказов, продано единиц, выручка]
+    @Query(value = """
+        SELECT product_id, SUM(order_count), SUM(quantity), SUM(revenue)
+        FROM sales_daily_product
+        WHERE day BETWEEN :startDay AND :endDay
+        GROUP BY product_id
+        HAVING SUM(quantity) > 0
+        ORDER BY SUM(revenue) DESC, product_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findTopProductsByRevenue(@Param("startDay") LocalDate startDay,
+                                            @Param("endDay") LocalDate endDay,
+                                            @Param("limit") int limit);
+
+    // [day, product_id, sku, name, количество заказов, продано единиц, выручка] — для потоковой выгрузки
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = """
+        SELECT s.day, s.product_id, p.sku, p.name, SUM(s.order_count), SUM(s.quantity), SUM(s.revenue)
+        FROM sales_daily_product s
+        JOIN products p ON p.id = s.product_id
+        WHERE s.day BETWEEN :startDay AND :endDay
+        GROUP BY s.day, s.product_id, p.sku, p.name
+        HAVING SUM(s.quantity) > 0
+        ORDER BY s.day, s.product_id
+        """, nativeQuery = true)
+    Stream<Object[]> streamProductSales(@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+}
@@ -0,0 +1,67 @@
+package com.jewelry.workshop.domain.repository;
+
+import com.jewelry.workshop.domain.model.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Query("""
+        SELECT r.product.id, SUM(r.quantity)
+        FROM StockReservation r
+        WHERE r.product.id IN :productIds AND r.status = 'HELD'
+        GROUP BY r.product.id
+        """)
+    List<Object[]> sumHeldByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    List<StockReservation> findByOrderId(Long orderId);
+
+    @Query("SELECT r FROM StockReservation r WHERE r.order.id = :orderId AND r.status = :status ORDER BY r.product.id")
+    List<StockReservation> findByOrderIdAndStatus(@Param("orderId") Long orderId, @Param("status") String status);
+
+    @Modifying
+    @Query("""
+        UPDATE StockReservation r SET r.status = 'RELEASED', r.updatedAt = CURRENT_TIMESTAMP
+        WHERE r.order.id IN :orderIds AND r.status = 'HELD'
+        """)
+    int releaseHeldByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("""
+        UPDATE StockReservation r SET r.expiresAt = NULL, r.updatedAt = CURRENT_TIMESTAMP
+        WHERE r.order.id = :orderId AND r.status = 'HELD'
+        """)
+    int clearExpiryByOrderId(@Param("orderId") Long orderId);
+
+    @Query("""
+        SELECT DISTINCT r.order.id
+        FROM StockReservation r
+        WHERE r.status = 'HELD' AND r.expiresAt < :now AND r.order.status = 'PENDING'
+        """)
+    List<Long> findOrderIdsWithExpiredHolds(@Param("now") Instant now, Pageable pageable);
+
+    // Отменяет заказы, всё ещё находящиеся в PENDING, и освобождает их резервы одним запросом.
+    // Возвращает (id, client_id) действительно отменённых заказов
+    @Query(value = """
+        WITH cancelled AS (
+            UPDATE orders SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP
+            WHERE id IN (:orderIds) AND status = 'PENDING'
+            RETURNING id, client_id
+        ), released AS (
+            UPDATE stock_reservations r SET status = 'RELEASED', updated_at = CURRENT_TIMESTAMP
+            FROM cancelled c
+            WHERE r.order_id = c.id AND r.status = 'HELD'
+        )
+        SELECT id, client_id FROM cancelled
+        """, nativeQuery = true)
+    List<Object[]> cancelPendingOrdersAndRelease(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -1,8 +1,12 @@
 package com.jewelry.workshop.domain.repository;
 
+import com.jewelry.workshop.domain.model.dto.user.UserResponseDTO;
 import com.jewelry.workshop.domain.model.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,4 +22,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPasswordResetToken(String passwordResetToken);
 
     long countByEnabled(Boolean enabled);
+
+    // Пользователь вместе с id профиля клиента или сотрудника одним запросом
+    String USER_RESPONSE_SELECT = """
+        SELECT new com.jewelry.workshop.domain.model.dto.user.UserResponseDTO(
+            u.id, u.username, u.email, u.role, u.enabled, u.createdAt, u.updatedAt, c.id, e.id)
+        FROM User u
+        LEFT JOIN Client c ON c.user = u
+        LEFT JOIN Employee e ON e.user = u
+        """;
+
+    @Query(value = USER_RESPONSE_SELECT, countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserResponseDTO> findResponsePage(Pageable pageable);
+
+    @Query(USER_RESPONSE_SELECT + "WHERE u.id = :id")
+    Optional<UserResponseDTO> findResponseById(@Param("id") Long id);
 }
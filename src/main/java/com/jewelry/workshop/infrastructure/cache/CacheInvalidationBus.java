@@ -0,0 +1,64 @@
+package com.jewelry.workshop.infrastructure.cache;
+
+import com.jewelry.workshop.config.properties.LocalCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Рассылка сбросов L1 через Redis pub/sub. Формат сообщения: узел|кеш|ключ, пустой ключ — очистка кеша.
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalCacheProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private Function<String, TwoTierCache> cacheLookup = name -> null;
+
+    void bind(Function<String, TwoTierCache> cacheLookup) {
+        this.cacheLookup = cacheLookup;
+    }
+
+    void publishEvict(String cacheName, String localKey) {
+        publish(cacheName + SEPARATOR + localKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(cacheName + SEPARATOR);
+    }
+
+    private void publish(String payload) {
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), nodeId + SEPARATOR + payload);
+        } catch (RuntimeException e) {
+            // Остальные узлы досчитают до истечения TTL своего L1
+            log.warn("Не удалось разослать сброс локального кеша: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = cacheLookup.apply(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts[2].isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.jewelry.workshop.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Сериализатор значений кеша с заранее известным типом: в данные не попадают имена классов.
+// Первый байт — формат тела: RAW или LZ4 (за ним исходная длина и сжатые данные).
+public class CompactRedisSerializer<T> implements RedisSerializer<T> {
+
+    private static final byte RAW = 0;
+    private static final byte LZ4 = 1;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final int compressionThreshold;
+
+    // compressionThreshold < 0 — без сжатия
+    public CompactRedisSerializer(ObjectMapper mapper, Class<T> type, int compressionThreshold) {
+        this.writer = mapper.writerFor(type);
+        this.reader = mapper.readerFor(type);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] body;
+        try {
+            body = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Не удалось сериализовать значение кеша", e);
+        }
+
+        if (compressionThreshold < 0 || body.length < compressionThreshold) {
+            ByteBuffer out = ByteBuffer.allocate(1 + body.length);
+            return out.put(RAW).put(body).array();
+        }
+        byte[] compressed = new byte[COMPRESSOR.maxCompressedLength(body.length)];
+        int compressedLength = COMPRESSOR.compress(body, 0, body.length, compressed, 0, compressed.length);
+        ByteBuffer out = ByteBuffer.allocate(1 + Integer.BYTES + compressedLength);
+        return out.put(LZ4).putInt(body.length).put(compressed, 0, compressedLength).array();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case RAW -> reader.readValue(bytes, 1, bytes.length - 1);
+                case LZ4 -> {
+                    int originalLength = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    byte[] body = new byte[originalLength];
+                    DECOMPRESSOR.decompress(bytes, 1 + Integer.BYTES, body, 0, originalLength);
+                    yield reader.readValue(body);
+                }
+                default -> throw new SerializationException("Неизвестный формат значения кеша: " + bytes[0]);
+            };
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof SerializationException serializationException) {
+                throw serializationException;
+            }
+            throw new SerializationException("Не удалось прочитать значение кеша", e);
+        }
+    }
+}
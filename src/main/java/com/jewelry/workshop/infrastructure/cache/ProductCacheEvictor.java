@@ -0,0 +1,34 @@
+package com.jewelry.workshop.infrastructure.cache;
+
+import com.jewelry.workshop.domain.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Сбрасывает кеши изделий после фиксации транзакции, чтобы параллельное чтение
+// не успело положить в кеш ещё не зафиксированное старое состояние
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictor {
+
+    private final CacheManager cacheManager;
+    private final ProductCacheKeys keys;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Cache products = cacheManager.getCache(ProductCacheKeys.PRODUCTS);
+        if (products != null) {
+            keys.allById(event.productId()).forEach(products::evict);
+        }
+        evictSearch();
+    }
+
+    // Изменение любого изделия может сдвинуть любую страницу поиска.
+    // Событие приходит и на каждое резервирование, поэтому вместо clear() со сканированием ключей — смена поколения
+    public void evictSearch() {
+        keys.advanceSearchGeneration();
+    }
+}
@@ -0,0 +1,113 @@
+package com.jewelry.workshop.infrastructure.cache;
+
+import com.jewelry.workshop.config.properties.LocalCacheProperties;
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchDTO;
+import com.jewelry.workshop.util.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Единая схема ключей кешей изделий для @Cacheable и для сброса.
+// Роли различаются только видимостью недоступных изделий, поэтому вариантов ключа два: CLIENT и STAFF.
+// Ключи поиска начинаются с поколения: сброс всех страниц — один INCR в Redis вместо обхода ключей,
+// а записи прошлых поколений просто истекают по TTL.
+@Slf4j
+@Component("productCacheKeys")
+@RequiredArgsConstructor
+public class ProductCacheKeys {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_SEARCH = "productSearch";
+
+    private static final String AUDIENCE_CLIENT = "CLIENT";
+    private static final String AUDIENCE_STAFF = "STAFF";
+    private static final String SEARCH_GENERATION_KEY = PRODUCT_SEARCH + ":generation";
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalCacheProperties properties;
+
+    private final AtomicLong searchGeneration = new AtomicLong();
+    private volatile boolean searchGenerationLoaded;
+    private volatile long searchGenerationCheckedAt;
+
+    public String byId(Long productId, String userRole) {
+        return productId + ":" + audience(userRole);
+    }
+
+    public List<String> allById(Long productId) {
+        return List.of(productId + ":" + AUDIENCE_CLIENT, productId + ":" + AUDIENCE_STAFF);
+    }
+
+    // Каждая часть ключа записывается с длиной, а null — отдельным маркером: иначе name = "a:b"
+    // совпал бы с соседними полями, а строка "null" — с отсутствующим фильтром
+    public String search(String userRole, ProductSearchDTO criteria, int page, int size) {
+        StringBuilder key = new StringBuilder("g").append(searchGeneration()).append(':').append(audience(userRole));
+        for (String part : new String[]{
+                criteria.getName(),
+                criteria.getType(),
+                plain(criteria.getMinPrice()),
+                plain(criteria.getMaxPrice()),
+                plain(criteria.getMinWeight()),
+                plain(criteria.getMaxWeight()),
+                criteria.getMinStock() == null ? null : criteria.getMinStock().toString(),
+                criteria.getIsAvailable() == null ? null : criteria.getIsAvailable().toString(),
+                criteria.getSortBy(),
+                criteria.getSortDirection()}) {
+            key.append(':');
+            if (part == null) {
+                key.append('~');
+            } else {
+                key.append(part.length()).append('#').append(part);
+            }
+        }
+        return key.append(':').append(page).append(':').append(size).toString();
+    }
+
+    // Делает все закешированные страницы поиска недостижимыми
+    public void advanceSearchGeneration() {
+        try {
+            Long next = redisTemplate.opsForValue().increment(SEARCH_GENERATION_KEY);
+            if (next != null) {
+                searchGeneration.accumulateAndGet(next, Math::max);
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сменить поколение кеша поиска: {}", e.getMessage());
+        }
+        // Хотя бы этот узел перестанет читать старые страницы
+        searchGeneration.incrementAndGet();
+    }
+
+    // Остальные узлы узнают о новом поколении не позже чем через search-generation-ttl.
+    // Поколение не убывает: ответ на GET, отправленный до INCR, не откатывает его назад
+    long searchGeneration() {
+        long now = System.nanoTime();
+        if (!searchGenerationLoaded || now - searchGenerationCheckedAt >= properties.getSearchGenerationTtl().toNanos()) {
+            searchGenerationCheckedAt = now;
+            searchGenerationLoaded = true;
+            try {
+                String stored = redisTemplate.opsForValue().get(SEARCH_GENERATION_KEY);
+                if (stored != null) {
+                    searchGeneration.accumulateAndGet(Long.parseLong(stored), Math::max);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Не удалось прочитать поколение кеша поиска: {}", e.getMessage());
+            }
+        }
+        return searchGeneration.get();
+    }
+
+    private String audience(String userRole) {
+        return Constants.ROLE_CLIENT.equals(userRole) ? AUDIENCE_CLIENT : AUDIENCE_STAFF;
+    }
+
+    // 1000 и 1000.00 — один и тот же фильтр
+    private String plain(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.jewelry.workshop.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jewelry.workshop.config.properties.LocalCacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TwoTierCacheManager implements CacheManager {
+
+    private final RedisCacheManager remoteManager;
+    private final LocalCacheProperties properties;
+    private final CacheInvalidationBus invalidationBus;
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager remoteManager,
+                               LocalCacheProperties properties,
+                               CacheInvalidationBus invalidationBus) {
+        this.remoteManager = remoteManager;
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.bind(caches::get);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(n, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(), remote, invalidationBus));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteManager.getCacheNames();
+    }
+
+    // Статистика по уровням: l1 — локальный Caffeine, l2 — Redis
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> {
+            CacheStats local = cache.localStats();
+            Map<String, Object> l1 = new LinkedHashMap<>();
+            l1.put("size", cache.localSize());
+            l1.put("hits", local.hitCount());
+            l1.put("misses", local.missCount());
+            l1.put("hitRate", local.hitRate());
+            l1.put("evictions", local.evictionCount());
+
+            Map<String, Object> l2 = new LinkedHashMap<>();
+            if (cache.remote() instanceof RedisCache redisCache) {
+                var remote = redisCache.getStatistics();
+                l2.put("hits", remote.getHits());
+                l2.put("misses", remote.getMisses());
+                l2.put("puts", remote.getPuts());
+                l2.put("deletes", remote.getDeletes());
+            }
+            result.put(name, Map.of("l1", l1, "l2", l2));
+        });
+        return result;
+    }
+}
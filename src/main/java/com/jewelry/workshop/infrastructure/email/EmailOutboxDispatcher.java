@@ -0,0 +1,129 @@
+package com.jewelry.workshop.infrastructure.email;
+
+import com.jewelry.workshop.config.properties.EmailOutboxProperties;
+import com.jewelry.workshop.domain.model.entity.EmailOutboxMessage;
+import com.jewelry.workshop.domain.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final EmailOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.dispatch-interval:5000}")
+    public void dispatch() {
+        List<EmailOutboxMessage> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            // SMTP-обмен идёт вне транзакции: соединение с БД не удерживается на время отправки
+            Map<Long, SendFailure> failures = send(batch);
+            List<EmailOutboxMessage> claimed = batch;
+            transactionTemplate.executeWithoutResult(status -> recordResults(claimed, failures));
+        } while (batch.size() == properties.getBatchSize());
+    }
+
+    // Короткая транзакция: next_attempt_at сдвигается на claim-timeout, и пока идёт отправка,
+    // письма пачки не возьмёт ни этот, ни другой узел. Если узел упадёт до записи результата,
+    // письма уйдут повторно по истечении claim-timeout
+    private List<EmailOutboxMessage> claimBatch() {
+        List<EmailOutboxMessage> batch = outboxRepository.lockDue(properties.getBatchSize());
+        Instant claimedUntil = Instant.now().plus(properties.getClaimTimeout());
+        batch.forEach(message -> message.setNextAttemptAt(claimedUntil));
+        return batch;
+    }
+
+    // Пачка уходит одним вызовом send(...): JavaMailSenderImpl открывает одно SMTP-соединение на все письма.
+    // Возвращает ошибки по id письма; письма без ошибки отправлены
+    private Map<Long, SendFailure> send(List<EmailOutboxMessage> batch) {
+        Map<Long, SendFailure> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutboxMessage> byMime = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                byMime.put(emailService.toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                failures.put(message.getId(), new SendFailure(e, true));
+            }
+        }
+
+        try {
+            mailSender.send(byMime.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            // Без списка отказов не получилось даже подключиться — повторяется вся пачка
+            byMime.forEach((mime, message) -> {
+                Exception failure = failed.isEmpty() ? e : failed.get(mime);
+                if (failure != null) {
+                    failures.put(message.getId(), new SendFailure(failure, false));
+                }
+            });
+        } catch (MailException e) {
+            byMime.values().forEach(message -> failures.put(message.getId(), new SendFailure(e, false)));
+        }
+        return failures;
+    }
+
+    private void recordResults(List<EmailOutboxMessage> batch, Map<Long, SendFailure> failures) {
+        Instant now = Instant.now();
+        List<Long> ids = batch.stream().map(EmailOutboxMessage::getId).toList();
+        for (EmailOutboxMessage message : outboxRepository.findAllById(ids)) {
+            SendFailure failure = failures.get(message.getId());
+            if (failure != null) {
+                markFailed(message, failure.error(), failure.permanent());
+            } else {
+                message.setStatus(EmailOutboxMessage.STATUS_SENT);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setSentAt(now);
+                message.setLastError(null);
+            }
+        }
+    }
+
+    private record SendFailure(Exception error, boolean permanent) {
+    }
+
+    // Экспоненциальная задержка между попытками; после исчерпания попыток письмо помечается FAILED
+    private void markFailed(EmailOutboxMessage message, Exception error, boolean permanent) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error.getMessage());
+        if (permanent || attempts >= properties.getMaxAttempts()) {
+            message.setStatus(EmailOutboxMessage.STATUS_FAILED);
+            log.error("Не удалось отправить email на {} после {} попыток: {}",
+                    message.getRecipient(), attempts, error.getMessage());
+            return;
+        }
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration backoff = properties.getInitialBackoff().multipliedBy(factor);
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        message.setNextAttemptAt(Instant.now().plus(backoff));
+        log.warn("Ошибка отправки email на {} (попытка {}), повтор через {}: {}",
+                message.getRecipient(), attempts, backoff, error.getMessage());
+    }
+}
@@ -1,6 +1,7 @@
 package com.jewelry.workshop.infrastructure.email;
 
-
+import com.jewelry.workshop.domain.model.entity.EmailOutboxMessage;
+import com.jewelry.workshop.domain.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -15,6 +16,7 @@ import jakarta.mail.internet.MimeMessage;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
 
     public void sendVerificationEmail(String to, String token){
         String link = "http://localhost:8080/api/auth/verify-email?token=" + token;
@@ -39,19 +41,19 @@ public class EmailService {
         sendHtmlEmail(to, subject, htmlContent);
     }
 
+    // Письмо попадает в очередь в текущей транзакции и уходит только после её фиксации (EmailOutboxDispatcher)
     private void sendHtmlEmail(String to, String subject, String htmlContent){
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            mailSender.send(mimeMessage);
-            log.info("Email отправлен на {}", to);
-        } catch(MessagingException e) {
-            log.error("Не удалось отправить email на {}: {}", to, e.getMessage());
-            throw new RuntimeException("Не удалось отправить email", e);
-        }
+        outboxRepository.save(new EmailOutboxMessage(to, subject, htmlContent));
+        log.debug("Email для {} поставлен в очередь", to);
+    }
+
+    MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), true);
+        return mimeMessage;
     }
 
     public void sendPasswordResetEmail(String to, String token) {
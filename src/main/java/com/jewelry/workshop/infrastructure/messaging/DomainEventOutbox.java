@@ -0,0 +1,85 @@
+package com.jewelry.workshop.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelry.workshop.config.properties.DomainEventProperties;
+import com.jewelry.workshop.domain.event.OrderCancelledEvent;
+import com.jewelry.workshop.domain.event.OrderCreatedEvent;
+import com.jewelry.workshop.domain.event.OrderStatusChangedEvent;
+import com.jewelry.workshop.domain.event.StockChangedEvent;
+import com.jewelry.workshop.domain.model.entity.DomainEventOutboxMessage;
+import com.jewelry.workshop.domain.model.entity.Order;
+import com.jewelry.workshop.domain.model.entity.OrderItem;
+import com.jewelry.workshop.domain.model.entity.Product;
+import com.jewelry.workshop.domain.repository.DomainEventOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+// Записывает доменные события в outbox в транзакции вызывающей операции: событие уходит в Kafka
+// тогда и только тогда, когда изменение зафиксировано. События заказа — с ключом клиента,
+// события остатка — с ключом изделия, поэтому порядок внутри ключа сохраняется в партиции.
+@Component
+@RequiredArgsConstructor
+public class DomainEventOutbox {
+
+    public static final String HEADER_EVENT_TYPE = "event-type";
+    public static final String HEADER_EVENT_ID = "event-id";
+
+    private final DomainEventOutboxRepository outboxRepository;
+    private final DomainEventProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public void orderCreated(Order order) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<OrderCreatedEvent.Item> items = order.getOrderItems().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .map(this::toEventItem)
+                .toList();
+        enqueueOrderEvent(order.getClient().getId(), new OrderCreatedEvent(
+                order.getId(), order.getClient().getId(), order.getTotalAmount(), order.getDiscountAmount(),
+                order.getFinalAmount(), items, Instant.now()));
+    }
+
+    public void orderStatusChanged(Long orderId, Long clientId, String previousStatus, String newStatus) {
+        enqueueOrderEvent(clientId, new OrderStatusChangedEvent(
+                orderId, clientId, previousStatus, newStatus, Instant.now()));
+    }
+
+    public void orderCancelled(Long orderId, Long clientId, String previousStatus, String reason) {
+        orderStatusChanged(orderId, clientId, previousStatus, Order.STATUS_CANCELLED);
+        enqueueOrderEvent(clientId, new OrderCancelledEvent(orderId, clientId, reason, Instant.now()));
+    }
+
+    public void stockChanged(Product product, String reason) {
+        enqueue(properties.getInventoryTopic(), product.getId(),
+                new StockChangedEvent(product.getId(), product.getInStock(), reason, Instant.now()));
+    }
+
+    private void enqueueOrderEvent(Long clientId, Object event) {
+        enqueue(properties.getOrdersTopic(), clientId, event);
+    }
+
+    private void enqueue(String topic, Long key, Object event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + event.getClass().getSimpleName(), e);
+        }
+        outboxRepository.save(new DomainEventOutboxMessage(
+                topic, String.valueOf(key), event.getClass().getSimpleName(), payload));
+    }
+
+    private OrderCreatedEvent.Item toEventItem(OrderItem item) {
+        return new OrderCreatedEvent.Item(item.getProduct().getId(), item.getQuantity(), item.getTotalPrice());
+    }
+}
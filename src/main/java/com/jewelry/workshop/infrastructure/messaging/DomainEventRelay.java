@@ -0,0 +1,118 @@
+package com.jewelry.workshop.infrastructure.messaging;
+
+import com.jewelry.workshop.config.properties.DomainEventProperties;
+import com.jewelry.workshop.domain.model.entity.DomainEventOutboxMessage;
+import com.jewelry.workshop.domain.repository.DomainEventOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Публикует события из outbox в Kafka. Доставка «хотя бы один раз»: при сбое после отправки
+// событие уйдёт повторно, поэтому потребители отбрасывают дубликаты по заголовку event-id.
+// Пачки публикует только узел, взявший advisory-блокировку, поэтому порядок событий одного ключа
+// совпадает с порядком записи в outbox.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DomainEventRelay {
+
+    // Ключ advisory-блокировки ретранслятора в PostgreSQL
+    static final long RELAY_LOCK_KEY = 0x6a65776c72656c61L;
+
+    private final DomainEventOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final DomainEventProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${app.events.kafka.relay-interval:1000}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int published;
+        do {
+            Integer result = transactionTemplate.execute(status -> relayBatch());
+            published = result != null ? result : 0;
+        } while (published == properties.getBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.kafka.purge-interval:3600000}")
+    public void purgePublished() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deletePublishedBefore(Instant.now().minus(properties.getRetention())));
+        if (deleted != null && deleted > 0) {
+            log.debug("Удалено опубликованных доменных событий: {}", deleted);
+        }
+    }
+
+    // Вся пачка отправляется без ожидания, затем ответы брокера собираются разом.
+    // Возвращает число опубликованных событий или -1, если часть пачки не ушла: проход
+    // прерывается, и неотправленные события повторяются в следующем запуске в исходном порядке.
+    private int relayBatch() {
+        if (!outboxRepository.tryLockRelay(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+        List<DomainEventOutboxMessage> batch = outboxRepository.lockUnpublished(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (DomainEventOutboxMessage message : batch) {
+            futures.add(kafkaTemplate.send(toRecord(message)));
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        Instant now = Instant.now();
+        Set<String> failedKeys = new HashSet<>();
+        int published = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            DomainEventOutboxMessage message = batch.get(i);
+            String partitionKey = message.getTopic() + '|' + message.getEventKey();
+            if (failedKeys.contains(partitionKey)) {
+                continue;
+            }
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                message.setPublishedAt(now);
+                published++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            } catch (ExecutionException | TimeoutException e) {
+                // Более поздние события того же ключа не помечаются, чтобы не обогнать неотправленное
+                failedKeys.add(partitionKey);
+                log.warn("Не удалось опубликовать событие {} #{} в {}: {}",
+                        message.getEventType(), message.getId(), message.getTopic(), e.getMessage());
+            }
+        }
+        return failedKeys.isEmpty() ? published : -1;
+    }
+
+    private ProducerRecord<String, String> toRecord(DomainEventOutboxMessage message) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                message.getTopic(), message.getEventKey(), message.getPayload());
+        record.headers().add(DomainEventOutbox.HEADER_EVENT_TYPE,
+                message.getEventType().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(DomainEventOutbox.HEADER_EVENT_ID,
+                String.valueOf(message.getId()).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
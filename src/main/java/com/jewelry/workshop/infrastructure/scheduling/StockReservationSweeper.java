@@ -0,0 +1,33 @@
+package com.jewelry.workshop.infrastructure.scheduling;
+
+import com.jewelry.workshop.config.properties.StockReservationProperties;
+import com.jewelry.workshop.service.interfaces.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationSweeper {
+
+    private final StockReservationService stockReservationService;
+    private final StockReservationProperties properties;
+
+    // Каждая пачка обрабатывается в своей транзакции, чтобы не держать блокировки на весь проход
+    @Scheduled(fixedDelayString = "${app.stock.reservation.sweep-interval:60000}")
+    public void releaseAbandonedOrders() {
+        int batchSize = properties.getSweepBatchSize();
+        int total = 0;
+        int processed;
+        do {
+            processed = stockReservationService.expireHolds(batchSize);
+            total += processed;
+        } while (processed == batchSize);
+
+        if (total > 0) {
+            log.info("Отменено заказов с истёкшим резервом: {}", total);
+        }
+    }
+}
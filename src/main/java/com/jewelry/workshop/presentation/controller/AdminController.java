@@ -35,6 +35,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getSystemStats());
     }
 
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Статистика кешей по уровням (l1 — локальный, l2 — Redis), включая кеш пользователей аутентификации")
+    @ApiResponse(responseCode = "200", description = "Статистика успешно получена",
+            content = @Content(schema = @Schema(implementation = Map.class)))
+    @ApiResponse(responseCode = "403", description = "Доступ запрещён",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(adminService.getCacheStats());
+    }
+
     @GetMapping("/logs")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Просмотр системных логов")
@@ -1,14 +1,18 @@
 package com.jewelry.workshop.presentation.controller;
 
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderCreateDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderStatusUpdateDTO;
 import com.jewelry.workshop.domain.model.dto.report.DailyOrderStatsDTO;
 import com.jewelry.workshop.domain.model.entity.Client;
+import com.jewelry.workshop.domain.model.entity.Order;
 import com.jewelry.workshop.domain.repository.ClientRepository;
 import com.jewelry.workshop.presentation.exception.error.ErrorResponseDTO;
 import com.jewelry.workshop.security.auth.UserDetailsImpl;
+import com.jewelry.workshop.service.interfaces.ExportService;
 import com.jewelry.workshop.service.interfaces.OrderService;
+import com.jewelry.workshop.util.ExportFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,12 +24,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -35,6 +43,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ExportService exportService;
     private final ClientRepository clientRepository;
 
     @GetMapping("/my")
@@ -56,6 +65,26 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/my/scroll")
+    @PreAuthorize("hasAnyRole('CLIENT', 'ADMIN')")
+    @Operation(summary = "Лента текущих (активных) заказов клиента",
+            description = "Курсорная пагинация от новых к старым: передайте nextCursor из предыдущего ответа. Общее количество не подсчитывается.")
+    @ApiResponse(responseCode = "200", description = "Страница заказов успешно получена",
+            content = @Content(schema = @Schema(implementation = CursorPageDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    @ApiResponse(responseCode = "401/403", description = "Ошибка аутентификации/авторизации",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    public ResponseEntity<CursorPageDTO<OrderResponseDTO>> scrollMyOrders(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Long clientId = getClientId(userDetails);
+        CursorPageDTO<OrderResponseDTO> orders = orderService.getMyOrdersAfter(clientId, cursor, size);
+        return ResponseEntity.ok(orders);
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('CLIENT', 'ADMIN')")
     @Operation(summary = "Создать новый заказ")
@@ -112,6 +141,26 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/my/history/scroll")
+    @PreAuthorize("hasAnyRole('CLIENT', 'ADMIN')")
+    @Operation(summary = "Лента истории всех своих заказов (включая отменённые)",
+            description = "Курсорная пагинация от новых к старым: передайте nextCursor из предыдущего ответа. Общее количество не подсчитывается.")
+    @ApiResponse(responseCode = "200", description = "Страница истории успешно получена",
+            content = @Content(schema = @Schema(implementation = CursorPageDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    @ApiResponse(responseCode = "401/403", description = "Ошибка аутентификации/авторизации",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    public ResponseEntity<CursorPageDTO<OrderResponseDTO>> scrollOrderHistory(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        Long clientId = getClientId(userDetails);
+        CursorPageDTO<OrderResponseDTO> orders = orderService.getOrderHistoryAfter(clientId, cursor, size);
+        return ResponseEntity.ok(orders);
+    }
+
     private Long getClientId(UserDetailsImpl userDetails) {
         return clientRepository.findByUserId(userDetails.getId())
                 .map(Client::getId)
@@ -134,6 +183,54 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Лента всех заказов (только для ADMIN)",
+            description = "Курсорная пагинация от новых к старым: передайте nextCursor из предыдущего ответа. Общее количество не подсчитывается.")
+    @ApiResponse(responseCode = "200", description = "Страница заказов успешно получена",
+            content = @Content(schema = @Schema(implementation = CursorPageDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    @ApiResponse(responseCode = "401/403", description = "Ошибка аутентификации/авторизации",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    public ResponseEntity<CursorPageDTO<OrderResponseDTO>> scrollAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPageDTO<OrderResponseDTO> orders = orderService.getAllOrdersAfter(cursor, size);
+        return ResponseEntity.ok(orders);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Выгрузка заказов за период (только для ADMIN)",
+            description = "Строки передаются потоком по мере чтения из БД: format=csv или ndjson, период [start, end).")
+    @ApiResponse(responseCode = "200", description = "Выгрузка формируется")
+    @ApiResponse(responseCode = "400", description = "Некорректный период, статус или формат",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Доступ запрещён (требуется роль ADMIN)",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше окончания");
+        }
+        if (status != null && !Order.isValidStatus(status)) {
+            throw new IllegalArgumentException("Недопустимый статус: " + status);
+        }
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> exportService.exportOrders(start, end, status, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('CLIENT', 'SELLER', 'ADMIN')")
     @Operation(summary = "Получить детали заказа по ID")
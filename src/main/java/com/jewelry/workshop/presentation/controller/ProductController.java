@@ -1,5 +1,6 @@
 package com.jewelry.workshop.presentation.controller;
 
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
 import com.jewelry.workshop.domain.model.dto.product.*;
 import com.jewelry.workshop.presentation.exception.error.ErrorResponseDTO;
 import com.jewelry.workshop.security.auth.UserDetailsImpl;
@@ -28,7 +29,7 @@ public class ProductController {
     private final ProductService productService;
 
     @GetMapping
-    @Operation(summary = "Просмотр каталога изделий", description = "Возвращает постраничный список изделий с фильтрацией и сортировкой. Доступно всем авторизованным пользователям.")
+    @Operation(summary = "Просмотр каталога изделий", description = "Возвращает постраничный список изделий с фильтрацией и сортировкой. Поиск по названию учитывает опечатки, артикул и описание; без параметра sortBy такие результаты упорядочены по релевантности. Доступно всем авторизованным пользователям.")
     @ApiResponse(
             responseCode = "200",
             description = "Список изделий успешно получен",
@@ -49,7 +50,7 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal maxWeight,
             @RequestParam(required = false) Integer minStock,
             @RequestParam(required = false) Boolean isAvailable,
-            @RequestParam(required = false, defaultValue = "name") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(required = false, defaultValue = "asc") String sortDirection,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
@@ -71,6 +72,55 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Лента каталога изделий", description = "Те же фильтры и сортировка, что у каталога, но с курсорной пагинацией: передайте nextCursor из предыдущего ответа. Общее количество не подсчитывается.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "Страница изделий успешно получена",
+            content = @Content(schema = @Schema(implementation = CursorPageDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Некорректный курсор или курсор от другой сортировки",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "401",
+            description = "Неавторизованный доступ: токен отсутствует, недействителен или просрочен",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class))
+    )
+    public ResponseEntity<CursorPageDTO<ProductResponseDTO>> scrollProducts(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) BigDecimal minWeight,
+            @RequestParam(required = false) BigDecimal maxWeight,
+            @RequestParam(required = false) Integer minStock,
+            @RequestParam(required = false) Boolean isAvailable,
+            @RequestParam(required = false, defaultValue = "name") String sortBy,
+            @RequestParam(required = false, defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        String userRole = userDetails.getUserRole();
+        ProductSearchDTO search = new ProductSearchDTO();
+        search.setName(name);
+        search.setType(type);
+        search.setMinPrice(minPrice);
+        search.setMaxPrice(maxPrice);
+        search.setMinWeight(minWeight);
+        search.setMaxWeight(maxWeight);
+        search.setMinStock(minStock);
+        search.setIsAvailable(isAvailable);
+        search.setSortBy(sortBy);
+        search.setSortDirection(sortDirection);
+
+        CursorPageDTO<ProductResponseDTO> response = productService.searchProductsAfter(userRole, search, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить детали изделия по ID", description = "Возвращает полную информацию об изделии. Клиенты видят только доступные изделия.")
     @ApiResponse(
@@ -3,7 +3,9 @@ package com.jewelry.workshop.presentation.controller;
 import com.jewelry.workshop.domain.model.dto.report.ClientReportDTO;
 import com.jewelry.workshop.domain.model.dto.report.SalesReportDTO;
 import com.jewelry.workshop.presentation.exception.error.ErrorResponseDTO;
+import com.jewelry.workshop.service.interfaces.ExportService;
 import com.jewelry.workshop.service.interfaces.ReportService;
+import com.jewelry.workshop.util.ExportFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,9 +13,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +29,7 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ExportService exportService;
 
     @GetMapping("/sales")
     @PreAuthorize("hasRole('ADMIN')")
@@ -73,4 +78,29 @@ public class ReportController {
         List<Map<String, Object>> typedReport = (List<Map<String, Object>>) report;
         return ResponseEntity.ok(typedReport);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/products/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Выгрузка продаж по изделиям и дням",
+            description = "Строки передаются потоком по мере чтения из БД: format=csv или ndjson. Период округляется до дней по UTC.")
+    @ApiResponse(responseCode = "200", description = "Выгрузка формируется")
+    @ApiResponse(responseCode = "400", description = "Некорректные даты или формат",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    @ApiResponse(responseCode = "403", description = "Доступ запрещён",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    public ResponseEntity<StreamingResponseBody> exportProductSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "csv") String format) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Начало периода должно быть не позже окончания");
+        }
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> exportService.exportProductSales(start, end, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"product-sales." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+}
@@ -191,4 +191,17 @@ public class GlobalExceptionHandler {
         );
         return ResponseEntity.badRequest().body(error);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(ReportTimeoutException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReportTimeout(ReportTimeoutException ex, HttpServletRequest request) {
+        log.warn("Report timeout at {}: {}", request.getRequestURI(), ex.getMessage());
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "REPORT_TIMEOUT",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
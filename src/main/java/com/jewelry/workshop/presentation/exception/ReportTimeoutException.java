@@ -0,0 +1,7 @@
+package com.jewelry.workshop.presentation.exception;
+
+public class ReportTimeoutException extends RuntimeException {
+    public ReportTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package com.jewelry.workshop.security.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jewelry.workshop.config.properties.UserDetailsCacheProperties;
+import com.jewelry.workshop.domain.event.UserCredentialsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Локальный кеш UserDetails по email. Хранит хеш пароля, поэтому только в памяти узла;
+// сброс рассылается остальным узлам через Redis pub/sub.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCache implements MessageListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final UserDetailsCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private Cache<String, UserDetailsImpl> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(properties.getInvalidationChannel()));
+    }
+
+    public UserDetailsImpl get(String email, Function<String, UserDetailsImpl> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(email);
+        }
+        return cache.get(email, loader);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        cache.invalidate(event.email());
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), nodeId + SEPARATOR + event.email());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось разослать сброс кеша пользователей: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length == 2 && !nodeId.equals(parts[0])) {
+            cache.invalidate(parts[1]);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
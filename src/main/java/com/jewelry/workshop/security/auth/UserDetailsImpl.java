@@ -7,7 +7,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import javax.management.relation.Role;
 import java.util.Collection;
 import java.util.List;
 
@@ -20,7 +19,7 @@ public class UserDetailsImpl implements UserDetails {
     private final String password;
     private final boolean enabled;
     private final Collection<? extends GrantedAuthority> authorities;
-    private final User user;
+    private final String role;
 
     public static UserDetailsImpl build(User user) {
         List<GrantedAuthority> authorities = List.of(
@@ -33,7 +32,20 @@ public class UserDetailsImpl implements UserDetails {
                 user.getPasswordHash(),
                 user.isEnabled(),
                 authorities,
-                user
+                user.getUserRole()
+        );
+    }
+
+    // Принципал из проверенного access-токена, без обращения к БД; пароля в нём нет
+    public static UserDetailsImpl fromClaims(Long id, String username, String email, String role) {
+        return new UserDetailsImpl(
+                id,
+                username,
+                email,
+                null,
+                true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)),
+                role
         );
     }
 
@@ -43,7 +55,7 @@ public class UserDetailsImpl implements UserDetails {
     }
 
     public String getUserRole(){
-        return user.getUserRole();
+        return role;
     }
 
     @Override
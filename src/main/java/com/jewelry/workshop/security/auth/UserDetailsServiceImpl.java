@@ -2,24 +2,35 @@ package com.jewelry.workshop.security.auth;
 
 import com.jewelry.workshop.domain.model.entity.User;
 import com.jewelry.workshop.domain.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    // Транзакция открывается только при промахе кеша: попадание не берёт соединение из пула
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserDetailsServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache,
+                                  PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Пользователь с email " + email + " не найден"));
-        return UserDetailsImpl.build(user);
+        return userDetailsCache.get(email, key -> readOnlyTransaction.execute(status -> {
+            User user = userRepository.findByEmail(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("Пользователь с email " + key + " не найден"));
+            return UserDetailsImpl.build(user);
+        }));
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package com.jewelry.workshop.security.jwt;
 
-import com.jewelry.workshop.security.auth.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -23,7 +22,6 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsServiceImpl userDetailsService;
 
     @Override
     protected void doFilterInternal(
@@ -36,10 +34,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if(header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                if(jwtTokenProvider.validateToken(token)){
-                    String email = jwtTokenProvider.getEmailFromJwt(token);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
+                Claims claims = jwtTokenProvider.parseClaims(token);
+                // Аутентифицирует только access-токен с полным набором claims: refresh-токен
+                // или токен старого формата без версии не должен обходить проверку отзыва
+                UserDetails userDetails = claims == null ? null : jwtTokenProvider.buildPrincipal(claims);
+                if(userDetails != null){
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -1,22 +1,41 @@
 package com.jewelry.workshop.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.jewelry.workshop.security.auth.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.security.Key;
 import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_USERNAME = "usr";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_VERSION = "ver";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    private final TokenRevocationService tokenRevocationService;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -27,42 +46,126 @@ public class JwtTokenProvider {
     @Value("${app.jwt.refresh.expiration}")
     private long refreshExpiration;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    // Ключ и парсер потокобезопасны и строятся один раз
+    private SecretKey key;
+    private JwtParser parser;
+    // Недавно проверенные токены: подпись повторно не проверяется до истечения срока токена
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser().verifyWith(key).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        return key;
     }
 
     public String generateToken(Authentication authentication){
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
         return Jwts.builder()
                 .setSubject(userPrincipal.getEmail())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_USERNAME, userPrincipal.getUsername())
+                .claim(CLAIM_ROLE, userPrincipal.getUserRole())
+                .claim(CLAIM_VERSION, tokenRevocationService.issueVersion(userPrincipal.getId()))
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(new Date().getTime() + jwtExpiration))
                 .signWith(key(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    // Refresh-токен несёт ту же версию, что и access-токен, и отзывается вместе с ним
     public String generateRefreshToken(Authentication authentication){
        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
         return Jwts.builder()
                 .setSubject(userPrincipal.getEmail())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_VERSION, tokenRevocationService.issueVersion(userPrincipal.getId()))
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(new Date().getTime() + refreshExpiration))
                 .signWith(key(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getEmailFromJwt(String token){
-        return Jwts.parser().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    // Проверяет подпись и срок действия один раз; null — токен недействителен
+    public Claims parseClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(token, claims);
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    public boolean validateToken(String token){
-        try{
-            Jwts.parser().setSigningKey(key()).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e){
-            return false;
+    // Принципал из claims access-токена; null — это не access-токен или в нём нет нужных claims
+    // (выдан до их появления). Отозванный токен — JwtException
+    public UserDetailsImpl buildPrincipal(Claims claims) {
+        if (!TOKEN_TYPE_ACCESS.equals(claims.get(CLAIM_TOKEN_TYPE, String.class))) {
+            return null;
+        }
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Long version = claims.get(CLAIM_VERSION, Long.class);
+        if (userId == null || role == null || version == null) {
+            return null;
         }
+        if (!tokenRevocationService.isCurrent(userId, version)) {
+            throw new JwtException("Токен отозван");
+        }
+        return UserDetailsImpl.fromClaims(userId, claims.get(CLAIM_USERNAME, String.class), claims.getSubject(), role);
+    }
+
+    // Claims refresh-токена; null — токен недействителен или это не refresh-токен
+    public Claims parseRefreshClaims(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null || !TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class))) {
+            return null;
+        }
+        return claims;
+    }
+
+    // Версия сверяется с Redis напрямую: обновление редкое, а локальный кеш версий может отставать
+    public boolean isRefreshTokenCurrent(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Long version = claims.get(CLAIM_VERSION, Long.class);
+        return userId != null && version != null && tokenRevocationService.isCurrentInStore(userId, version);
     }
 
 }
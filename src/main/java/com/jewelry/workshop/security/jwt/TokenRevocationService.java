@@ -0,0 +1,82 @@
+package com.jewelry.workshop.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jewelry.workshop.domain.event.UserCredentialsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+// Версия токенов пользователя в Redis. Access- и refresh-токены несут версию на момент выдачи и отзываются,
+// как только версия в Redis становится больше. Выдача токена и отзыв продлевают ключ на срок жизни
+// самого долгого из токенов, поэтому ключ исчезает не раньше последнего выданного с ним токена, и счётчик
+// не может начаться заново, пока такой токен действителен.
+@Slf4j
+@Component
+public class TokenRevocationService {
+
+    private static final String KEY_PREFIX = "auth:token_version:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration keyTtl;
+    // Короткий локальный кеш версий избавляет от обращения к Redis на каждый запрос
+    private final Cache<Long, Long> versions;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  @Value("${app.jwt.expiration}") long jwtExpiration,
+                                  @Value("${app.jwt.refresh.expiration}") long refreshExpiration,
+                                  @Value("${app.jwt.revocation-check-ttl:5s}") Duration checkTtl) {
+        this.redisTemplate = redisTemplate;
+        this.keyTtl = Duration.ofMillis(Math.max(jwtExpiration, refreshExpiration));
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(checkTtl)
+                .build();
+    }
+
+    // Для выдачи токена: читает версию из Redis в обход локального кеша, который может отставать
+    // на revocation-check-ttl, и продлевает ключ на срок жизни нового токена
+    public long issueVersion(Long userId) {
+        String value = redisTemplate.opsForValue().getAndExpire(KEY_PREFIX + userId, keyTtl);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    public long currentVersion(Long userId) {
+        return versions.get(userId, id -> {
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+            return value == null ? 0L : Long.parseLong(value);
+        });
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    // В обход локального кеша — для редких операций, где отставание на revocation-check-ttl недопустимо
+    public boolean isCurrentInStore(Long userId, long tokenVersion) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        long version = value == null ? 0L : Long.parseLong(value);
+        versions.put(userId, version);
+        return tokenVersion >= version;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        revoke(event.userId());
+    }
+
+    public void revoke(Long userId) {
+        String key = KEY_PREFIX + userId;
+        Long version = redisTemplate.opsForValue().increment(key);
+        redisTemplate.expire(key, keyTtl);
+        if (version != null) {
+            versions.put(userId, version);
+        }
+        log.debug("Токены пользователя {} отозваны, версия {}", userId, version);
+    }
+}
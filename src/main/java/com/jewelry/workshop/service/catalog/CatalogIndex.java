@@ -0,0 +1,104 @@
+package com.jewelry.workshop.service.catalog;
+
+import com.jewelry.workshop.config.properties.CatalogIndexProperties;
+import com.jewelry.workshop.domain.event.ProductChangedEvent;
+import com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO;
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchDTO;
+import com.jewelry.workshop.domain.repository.ProductRepository;
+import com.jewelry.workshop.infrastructure.cache.ProductCacheEvictor;
+import com.jewelry.workshop.service.mapper.ProductMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Каталог в памяти для фильтрации без обращения к БД. Изменения изделий копятся по событиям и
+// применяются фоновым проходом; раз в reload-interval каталог перечитывается целиком
+// на случай изменений в обход сервисов.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogIndex {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final CatalogIndexProperties properties;
+
+    private final ProductCacheEvictor productCacheEvictor;
+
+    private final Set<Long> pendingChanges = ConcurrentHashMap.newKeySet();
+    private volatile CatalogSnapshot snapshot;
+
+    public boolean isReady() {
+        return properties.isEnabled() && snapshot != null;
+    }
+
+    public Page<ProductResponseDTO> search(String userRole, ProductSearchDTO criteria, String sortField,
+                                           boolean descending, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        long[] total = new long[1];
+        List<ProductResponseDTO> items = snapshot.search(
+                userRole, criteria, sortField, descending, pageable.getOffset(), size, total);
+        return new PageImpl<>(items, pageable, total[0]);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.catalog.index.reload-interval:300000}", initialDelayString = "${app.catalog.index.reload-interval:300000}")
+    public synchronized void reload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<ProductResponseDTO> products = productRepository.findAll(Sort.by("name", "id")).stream()
+                .map(productMapper::toDto)
+                .toList();
+        snapshot = CatalogSnapshot.of(products);
+        log.debug("Индекс каталога перестроен: {} изделий", products.size());
+    }
+
+    // Слушатель только запоминает изделие: пересборка снимка не держит поток запроса,
+    // а серия событий по одному изделию сливается в одно изменение
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (isReady()) {
+            pendingChanges.add(event.productId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.index.refresh-interval:200}")
+    public synchronized void applyPendingChanges() {
+        if (!isReady() || pendingChanges.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(pendingChanges);
+        // Удаляем до чтения из БД: событие, пришедшее во время чтения, попадёт в следующий проход
+        pendingChanges.removeAll(productIds);
+
+        Map<Long, ProductResponseDTO> changes = new HashMap<>();
+        productIds.forEach(id -> changes.put(id, null));
+        productRepository.findAllById(productIds)
+                .forEach(product -> changes.put(product.getId(), productMapper.toDto(product)));
+        CatalogSnapshot next = snapshot.withChanges(changes);
+        if (next == null) {
+            reload();
+        } else {
+            snapshot = next;
+        }
+        // Страницы, закешированные между фиксацией и применением изменений, собраны по старому снимку
+        productCacheEvictor.evictSearch();
+    }
+}
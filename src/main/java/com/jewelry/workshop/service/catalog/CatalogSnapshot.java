@@ -0,0 +1,248 @@
+package com.jewelry.workshop.service.catalog;
+
+import com.jewelry.workshop.domain.model.dto.product.ProductResponseDTO;
+import com.jewelry.workshop.domain.model.dto.product.ProductSearchDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Неизменяемый колоночный снимок каталога: по слоту i лежат значения i-го изделия.
+// Цена хранится в копейках, вес — в миллиграммах, чтобы сравнения шли по примитивам.
+// Строки передаются в порядке ORDER BY name, id из БД: порядок названий задаёт сортировка PostgreSQL,
+// а не String.compareTo, иначе границы страниц расходились бы с запросом к БД.
+final class CatalogSnapshot {
+
+    private static final String NAME_SORT = "name";
+
+    // NULL в PostgreSQL при ASC идёт последним
+    private static final Map<String, Comparator<ProductResponseDTO>> SORTS = Map.of(
+            "price", Comparator.comparing(ProductResponseDTO::getPrice),
+            "weight", Comparator.comparing(ProductResponseDTO::getWeight),
+            "inStock", Comparator.comparing(ProductResponseDTO::getInStock,
+                    Comparator.nullsLast(Comparator.naturalOrder())),
+            "createdAt", Comparator.comparing(ProductResponseDTO::getCreatedAt,
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+    );
+
+    private final ProductResponseDTO[] rows;
+    private final long[] priceCents;
+    private final long[] weightMg;
+    private final int[] stock;
+    // Слоты удалённых изделий остаются в массивах до полной перезагрузки, но выпадают из поиска
+    private final BitSet present;
+    private final BitSet available;
+    private final BitSet unavailable;
+    private final Map<String, BitSet> byType;
+    private final Map<Long, Integer> slotById;
+    private final Map<String, int[]> orders;
+
+    private CatalogSnapshot(ProductResponseDTO[] rows) {
+        int n = rows.length;
+        this.rows = rows;
+        this.priceCents = new long[n];
+        this.weightMg = new long[n];
+        this.stock = new int[n];
+        this.present = new BitSet(n);
+        this.available = new BitSet(n);
+        this.unavailable = new BitSet(n);
+        this.byType = new HashMap<>();
+        this.slotById = new HashMap<>(n * 2);
+
+        present.set(0, n);
+        for (int i = 0; i < n; i++) {
+            fill(i, rows[i]);
+            slotById.put(rows[i].getId(), i);
+        }
+
+        // Порядки слотов для каждой сортировки; id — второй ключ, как в запросе к БД
+        this.orders = new HashMap<>();
+        orders.put(NAME_SORT, IntStream.range(0, n).toArray());
+        SORTS.forEach((field, comparator) -> {
+            Comparator<ProductResponseDTO> full = comparator.thenComparing(ProductResponseDTO::getId);
+            orders.put(field, IntStream.range(0, n)
+                    .boxed()
+                    .sorted((a, b) -> full.compare(rows[a], rows[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray());
+        });
+    }
+
+    // Копия колонок: изменения патчат копию, старый снимок продолжает обслуживать поиск
+    private CatalogSnapshot(CatalogSnapshot source) {
+        this.rows = source.rows.clone();
+        this.priceCents = source.priceCents.clone();
+        this.weightMg = source.weightMg.clone();
+        this.stock = source.stock.clone();
+        this.present = (BitSet) source.present.clone();
+        this.available = (BitSet) source.available.clone();
+        this.unavailable = (BitSet) source.unavailable.clone();
+        this.byType = new HashMap<>();
+        source.byType.forEach((type, slots) -> byType.put(type, (BitSet) slots.clone()));
+        this.slotById = new HashMap<>(source.slotById);
+        this.orders = new HashMap<>();
+        source.orders.forEach((field, order) -> orders.put(field, order.clone()));
+    }
+
+    // products — в порядке ORDER BY name, id
+    static CatalogSnapshot of(Collection<ProductResponseDTO> products) {
+        return new CatalogSnapshot(products.toArray(new ProductResponseDTO[0]));
+    }
+
+    // Копия снимка с применёнными изменениями; значение null — удаление изделия.
+    // Меняются только колонки и битовые маски затронутых слотов, а в каждом порядке сортировки
+    // слот переставляется двоичным поиском без пересортировки всего каталога.
+    // Место нового изделия или изделия с новым названием знает только БД: тогда возвращает null
+    CatalogSnapshot withChanges(Map<Long, ProductResponseDTO> changes) {
+        for (Map.Entry<Long, ProductResponseDTO> change : changes.entrySet()) {
+            Integer slot = slotById.get(change.getKey());
+            ProductResponseDTO product = change.getValue();
+            if (product != null && (slot == null || !rows[slot].getName().equals(product.getName()))) {
+                return null;
+            }
+        }
+        CatalogSnapshot next = new CatalogSnapshot(this);
+        changes.forEach((productId, product) -> {
+            Integer slot = next.slotById.get(productId);
+            if (slot == null) {
+                return;
+            }
+            if (product == null) {
+                next.remove(productId, slot);
+            } else {
+                next.replace(slot, product);
+            }
+        });
+        return next;
+    }
+
+    int size() {
+        return present.cardinality();
+    }
+
+    private void fill(int slot, ProductResponseDTO row) {
+        priceCents[slot] = row.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+        weightMg[slot] = row.getWeight().movePointRight(3).setScale(0, RoundingMode.HALF_UP).longValue();
+        // NULL не проходит фильтр p.inStock >= :minStock
+        stock[slot] = row.getInStock() == null ? Integer.MIN_VALUE : row.getInStock();
+        available.set(slot, Boolean.TRUE.equals(row.getIsAvailable()));
+        unavailable.set(slot, Boolean.FALSE.equals(row.getIsAvailable()));
+        byType.computeIfAbsent(row.getType(), t -> new BitSet(rows.length)).set(slot);
+    }
+
+    private void remove(Long productId, int slot) {
+        present.clear(slot);
+        slotById.remove(productId);
+    }
+
+    private void replace(int slot, ProductResponseDTO product) {
+        ProductResponseDTO previous = rows[slot];
+        Map<String, Integer> positions = new HashMap<>();
+        SORTS.forEach((field, comparator) ->
+                positions.put(field, position(orders.get(field), previous, comparator.thenComparing(ProductResponseDTO::getId))));
+
+        BitSet ofType = byType.get(previous.getType());
+        ofType.clear(slot);
+        if (ofType.isEmpty()) {
+            byType.remove(previous.getType());
+        }
+        rows[slot] = product;
+        fill(slot, product);
+
+        SORTS.forEach((field, comparator) -> {
+            int[] order = orders.get(field);
+            int from = positions.get(field);
+            int last = order.length - 1;
+            System.arraycopy(order, from + 1, order, from, last - from);
+            int to = insertionPoint(order, last, product, comparator.thenComparing(ProductResponseDTO::getId));
+            System.arraycopy(order, to, order, to + 1, last - to);
+            order[to] = slot;
+        });
+    }
+
+    // Позиция строки в порядке сортировки; строки уникальны благодаря id во втором ключе
+    private int position(int[] order, ProductResponseDTO row, Comparator<ProductResponseDTO> comparator) {
+        int low = 0;
+        int high = order.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare(rows[order[mid]], row);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("Порядок сортировки снимка каталога нарушен");
+    }
+
+    // Место вставки строки среди первых length элементов порядка
+    private int insertionPoint(int[] order, int length, ProductResponseDTO row, Comparator<ProductResponseDTO> comparator) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(rows[order[mid]], row) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Возвращает строки страницы и общее количество совпадений (через total[0])
+    List<ProductResponseDTO> search(String userRole, ProductSearchDTO criteria, String sortField,
+                                    boolean descending, long offset, int limit, long[] total) {
+        BitSet candidates = (BitSet) present.clone();
+        // Условия роли и фильтра независимы, как в запросе: CLIENT с isAvailable = false получает пустую страницу
+        if ("CLIENT".equals(userRole)) {
+            candidates.and(available);
+        }
+        if (Boolean.TRUE.equals(criteria.getIsAvailable())) {
+            candidates.and(available);
+        } else if (Boolean.FALSE.equals(criteria.getIsAvailable())) {
+            candidates.and(unavailable);
+        }
+        if (criteria.getType() != null && !criteria.getType().isEmpty()) {
+            BitSet ofType = byType.get(criteria.getType());
+            if (ofType == null) {
+                total[0] = 0;
+                return List.of();
+            }
+            candidates.and(ofType);
+        }
+
+        long minPrice = criteria.getMinPrice() == null ? Long.MIN_VALUE : scaled(criteria.getMinPrice(), 2, RoundingMode.CEILING);
+        long maxPrice = criteria.getMaxPrice() == null ? Long.MAX_VALUE : scaled(criteria.getMaxPrice(), 2, RoundingMode.FLOOR);
+        long minWeight = criteria.getMinWeight() == null ? Long.MIN_VALUE : scaled(criteria.getMinWeight(), 3, RoundingMode.CEILING);
+        long maxWeight = criteria.getMaxWeight() == null ? Long.MAX_VALUE : scaled(criteria.getMaxWeight(), 3, RoundingMode.FLOOR);
+        int minStock = criteria.getMinStock() == null ? Integer.MIN_VALUE : criteria.getMinStock();
+
+        int[] order = orders.getOrDefault(sortField, orders.get(NAME_SORT));
+        List<ProductResponseDTO> page = new ArrayList<>(Math.min(limit, order.length));
+        long matched = 0;
+        for (int k = 0; k < order.length; k++) {
+            int i = order[descending ? order.length - 1 - k : k];
+            if (!candidates.get(i)
+                    || priceCents[i] < minPrice || priceCents[i] > maxPrice
+                    || weightMg[i] < minWeight || weightMg[i] > maxWeight
+                    || stock[i] < minStock) {
+                continue;
+            }
+            if (matched >= offset && page.size() < limit) {
+                page.add(rows[i]);
+            }
+            matched++;
+        }
+        total[0] = matched;
+        return page;
+    }
+
+    private static long scaled(BigDecimal value, int scale, RoundingMode rounding) {
+        return value.movePointRight(scale).setScale(0, rounding).longValue();
+    }
+}
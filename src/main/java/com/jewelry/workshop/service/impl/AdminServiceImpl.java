@@ -4,12 +4,16 @@ import com.jewelry.workshop.domain.model.dto.report.AuditLogDTO;
 import com.jewelry.workshop.domain.model.dto.user.UserImportDTO;
 import com.jewelry.workshop.domain.model.entity.User;
 import com.jewelry.workshop.domain.repository.*;
+import com.jewelry.workshop.infrastructure.cache.TwoTierCacheManager;
+import com.jewelry.workshop.security.auth.UserDetailsCache;
 import com.jewelry.workshop.service.interfaces.AdminService;
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +23,7 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +37,8 @@ public class AdminServiceImpl implements AdminService {
     private final OrderRepository orderRepository;
     private final AuditLogRepository auditLogRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public Map<String, Object> getSystemStats() {
@@ -56,6 +63,28 @@ public class AdminServiceImpl implements AdminService {
         );
     }
 
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("userDetails", Map.of("l1", userDetailsCache.getStatistics()));
+        if (cacheManager instanceof TwoTierCacheManager twoTier) {
+            result.putAll(twoTier.getStatistics());
+            return result;
+        }
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof RedisCache redisCache) {
+                var stats = redisCache.getStatistics();
+                result.put(name, Map.of("l2", Map.of(
+                        "hits", stats.getHits(),
+                        "misses", stats.getMisses(),
+                        "puts", stats.getPuts(),
+                        "deletes", stats.getDeletes()
+                )));
+            }
+        }
+        return result;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<AuditLogDTO> getAuditLogs(Pageable pageable) {
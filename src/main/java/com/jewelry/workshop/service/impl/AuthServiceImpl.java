@@ -1,5 +1,6 @@
 package com.jewelry.workshop.service.impl;
 
+import com.jewelry.workshop.domain.event.UserCredentialsChangedEvent;
 import com.jewelry.workshop.domain.model.dto.auth.*;
 import com.jewelry.workshop.domain.model.entity.Client;
 import com.jewelry.workshop.domain.model.entity.User;
@@ -15,8 +16,10 @@ import com.jewelry.workshop.security.jwt.JwtTokenProvider;
 import com.jewelry.workshop.service.interfaces.AuthService;
 import com.jewelry.workshop.util.Constants;
 import com.jewelry.workshop.util.PasswordUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -40,6 +43,7 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -145,6 +149,8 @@ public class AuthServiceImpl implements AuthService {
         user.setVerificationToken(null);
         user.setVerificationTokenExpiresAt(null);
         userRepository.save(user);
+        // Иначе закешированный UserDetails с enabled = false не пускал бы пользователя до истечения TTL
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId(), user.getEmail()));
 
         emailService.sendWelcomeEmail(user.getEmail());
 
@@ -190,6 +196,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPasswordResetTokenExpiresAt(null);
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId(), user.getEmail()));
 
         return true;
     }
@@ -197,10 +204,11 @@ public class AuthServiceImpl implements AuthService {
     @Override
     @Transactional
     public void logout(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.parseRefreshClaims(refreshToken);
+        if (claims == null) {
             throw new InvalidTokenException("Неверный refresh токен");
         }
-        String email = jwtTokenProvider.getEmailFromJwt(refreshToken);
+        String email = claims.getSubject();
         String storedToken = redisTemplate.opsForValue().get("refresh_token:" + email);
         if (storedToken == null || !storedToken.equals(refreshToken)) {
             throw new InvalidTokenException("Refresh токен недействителен");
@@ -212,11 +220,16 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public AuthResponseDTO refreshToken(RefreshTokenRequestDTO request) {
         String refreshToken = request.getRefreshToken();
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.parseRefreshClaims(refreshToken);
+        if (claims == null) {
             throw new InvalidTokenException("Неверный refresh токен");
         }
+        // Смена пароля отзывает и refresh-токены, даже если ключ в Redis не был удалён
+        if (!jwtTokenProvider.isRefreshTokenCurrent(claims)) {
+            throw new InvalidTokenException("Refresh токен отозван");
+        }
 
-        String email = jwtTokenProvider.getEmailFromJwt(refreshToken);
+        String email = claims.getSubject();
         String redisKey = "refresh_token:" + email;
 
         String storedToken = redisTemplate.opsForValue().get(redisKey);
@@ -271,5 +284,6 @@ public class AuthServiceImpl implements AuthService {
         userRepository.save(user);
 
         redisTemplate.delete("refresh_token:" + user.getEmail());
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId(), user.getEmail()));
     }
 }
\ No newline at end of file
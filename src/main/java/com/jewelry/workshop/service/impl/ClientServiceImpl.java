@@ -1,10 +1,10 @@
 package com.jewelry.workshop.service.impl;
 
+import com.jewelry.workshop.domain.event.UserCredentialsChangedEvent;
 import com.jewelry.workshop.domain.model.dto.client.*;
 import com.jewelry.workshop.domain.model.entity.Client;
 import com.jewelry.workshop.domain.model.entity.User;
 import com.jewelry.workshop.domain.repository.ClientRepository;
-import com.jewelry.workshop.domain.repository.OrderRepository;
 import com.jewelry.workshop.domain.repository.UserRepository;
 import com.jewelry.workshop.presentation.exception.*;
 import com.jewelry.workshop.service.interfaces.ClientService;
@@ -12,57 +12,42 @@ import com.jewelry.workshop.service.mapper.ClientMapper;
 import com.jewelry.workshop.util.PasswordUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ClientServiceImpl implements ClientService {
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
     private final PasswordUtil passwordUtil;
     private final ClientMapper clientMapper;
     private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public ClientProfileDTO getOwnProfile(Long userId) {
+        return clientRepository.findProfileByUserId(userId)
+                .orElseThrow(() -> profileUnavailable(userId));
+    }
+
+    // Профиль не найден: отдельными запросами выясняем причину, чтобы вернуть ту же ошибку, что и раньше
+    private RuntimeException profileUnavailable(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-
         if (!user.getRole().equals(User.Role.CLIENT)) {
-            throw new UnauthorizedAccessException("Только клиенты могут просматривать профиль");
+            return new UnauthorizedAccessException("Только клиенты могут просматривать профиль");
         }
-
-        Client client = clientRepository.findByUserId(user.getId())
-                .orElseThrow(ClientProfileNotFoundException::new);
-
-        Long orderCount = orderRepository.countOrdersByClientId(client.getId());
-        BigDecimal totalSpent = orderRepository.getTotalSpentByClientId(client.getId());
-        LocalDateTime lastOrderDate = orderRepository.getLastOrderDateByClientId(client.getId());
-
-        return ClientProfileDTO.builder()
-                .firstName(client.getFirstName())
-                .lastName(client.getLastName())
-                .patronymic(client.getPatronymic())
-                .email(user.getEmail())
-                .phone(client.getPhone())
-                .fullName(client.getFullName())
-                .orderCount(orderCount)
-                .totalSpent(totalSpent)
-                .lastOrderDate(lastOrderDate)
-                .build();
+        return new ClientProfileNotFoundException();
     }
 
     @Override
@@ -98,21 +83,8 @@ public class ClientServiceImpl implements ClientService {
         userRepository.save(user);
         clientRepository.save(client);
 
-        Long orderCount = orderRepository.countOrdersByClientId(client.getId());
-        BigDecimal totalSpent = orderRepository.getTotalSpentByClientId(client.getId());
-        LocalDateTime lastOrderDate = orderRepository.getLastOrderDateByClientId(client.getId());
-
-        return ClientProfileDTO.builder()
-                .firstName(client.getFirstName())
-                .lastName(client.getLastName())
-                .patronymic(client.getPatronymic())
-                .email(user.getEmail())
-                .phone(client.getPhone())
-                .fullName(client.getFullName())
-                .orderCount(orderCount)
-                .totalSpent(totalSpent)
-                .lastOrderDate(lastOrderDate)
-                .build();
+        return clientRepository.findProfileByUserId(userId)
+                .orElseThrow(ClientProfileNotFoundException::new);
     }
 
     @Override
@@ -141,17 +113,13 @@ public class ClientServiceImpl implements ClientService {
         userRepository.save(user);
 
         redisTemplate.delete("refresh_token:" + user.getEmail());
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId(), user.getEmail()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ClientResponseDTO> getAllClients(Pageable pageable){
-        Page<Client> clients = clientRepository.findAll(pageable);
-
-        List<ClientResponseDTO> dtos = clients.getContent().stream()
-                .map(clientMapper::toDto)
-                .collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, clients.getTotalElements());
+        return clientRepository.findResponsePage(pageable);
     }
 
     @Override
@@ -186,25 +154,15 @@ public class ClientServiceImpl implements ClientService {
             throw new IllegalArgumentException("Недопустимое значение sortBy: " + sortBy);
         }
 
-        Pageable pageable = PageRequest.of(page, size);
-
-        String phonePattern = phone != null ? "%" + phone + "%" : null;
-
-        Page<Client> clients = clientRepository.findClientsByCriteria(
+        return clientRepository.searchClients(
                 lastName,
                 firstName,
-                phonePattern,
+                phone,
                 isPermanent,
                 minOrders,
                 sortBy,
-                pageable
+                PageRequest.of(page, size)
         );
-
-        List<ClientResponseDTO> dtos = clients.getContent().stream()
-                .map(clientMapper::toDto)
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(dtos, pageable, clients.getTotalElements());
     }
     @Override
     @Transactional
@@ -0,0 +1,152 @@
+package com.jewelry.workshop.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jewelry.workshop.domain.model.dto.order.OrderExportRowDTO;
+import com.jewelry.workshop.domain.model.dto.report.ProductSalesExportRowDTO;
+import com.jewelry.workshop.domain.repository.OrderRepository;
+import com.jewelry.workshop.domain.repository.SalesRollupRepository;
+import com.jewelry.workshop.service.interfaces.ExportService;
+import com.jewelry.workshop.util.ExportFormat;
+import com.opencsv.CSVWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Выгрузки пишутся в ответ по мере чтения курсора: в памяти держится только буфер записи.
+// Методы вызываются из StreamingResponseBody, поэтому транзакция открывается здесь, а не в контроллере.
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern PHONE = Pattern.compile("^\\+\\d+$");
+
+    private static final String[] ORDER_HEADER = {
+            "order_id", "order_number", "order_datetime", "status", "client_id", "client_last_name",
+            "client_first_name", "client_phone", "total_amount", "discount_amount", "final_amount", "completed_at"
+    };
+    private static final String[] PRODUCT_SALES_HEADER = {
+            "day", "product_id", "sku", "product_name", "order_count", "quantity", "revenue"
+    };
+
+    private final OrderRepository orderRepository;
+    private final SalesRollupRepository rollupRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(Instant start, Instant end, String status, ExportFormat format, OutputStream out)
+            throws IOException {
+        try (Stream<OrderExportRowDTO> rows = orderRepository.streamForExport(start, end, status)) {
+            write(rows, format, ORDER_HEADER, this::toOrderCsvRow, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProductSales(Instant start, Instant end, ExportFormat format, OutputStream out)
+            throws IOException {
+        LocalDate startDay = LocalDate.ofInstant(start, ZoneOffset.UTC);
+        LocalDate endDay = LocalDate.ofInstant(end, ZoneOffset.UTC);
+        try (Stream<ProductSalesExportRowDTO> rows = rollupRepository.streamProductSales(startDay, endDay)
+                .map(this::toProductSalesRow)) {
+            write(rows, format, PRODUCT_SALES_HEADER, this::toProductSalesCsvRow, out);
+        }
+    }
+
+    private <T> void write(Stream<T> rows, ExportFormat format, String[] header,
+                           Function<T, String[]> csvRow, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        Iterator<T> iterator = rows.iterator();
+        long written = 0;
+
+        if (format == ExportFormat.CSV) {
+            // BOM: без него Excel открывает UTF-8 в однобайтовой кодировке и портит кириллицу
+            writer.write('\uFEFF');
+            CSVWriter csv = new CSVWriter(writer);
+            csv.writeNext(header, false);
+            while (iterator.hasNext()) {
+                csv.writeNext(csvRow.apply(iterator.next()), false);
+                if (++written % FLUSH_EVERY_ROWS == 0) {
+                    csv.flush();
+                }
+            }
+            csv.flush();
+            return;
+        }
+
+        ObjectWriter json = objectMapper.writer();
+        while (iterator.hasNext()) {
+            writer.write(json.writeValueAsString(iterator.next()));
+            writer.write('\n');
+            if (++written % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private String[] toOrderCsvRow(OrderExportRowDTO row) {
+        return new String[]{
+                text(row.getOrderId()), text(row.getOrderNumber()), text(row.getOrderDatetime()), row.getStatus(),
+                text(row.getClientId()), formulaSafe(row.getClientLastName()), formulaSafe(row.getClientFirstName()),
+                phone(row.getClientPhone()),
+                amount(row.getTotalAmount()), amount(row.getDiscountAmount()), amount(row.getFinalAmount()),
+                text(row.getCompletedAt())
+        };
+    }
+
+    private String[] toProductSalesCsvRow(ProductSalesExportRowDTO row) {
+        return new String[]{
+                text(row.getDay()), text(row.getProductId()), formulaSafe(row.getSku()), formulaSafe(row.getProductName()),
+                text(row.getOrderCount()), text(row.getQuantity()), amount(row.getRevenue())
+        };
+    }
+
+    private ProductSalesExportRowDTO toProductSalesRow(Object[] row) {
+        return new ProductSalesExportRowDTO(
+                ((java.sql.Date) row[0]).toLocalDate(),
+                ((Number) row[1]).longValue(),
+                (String) row[2],
+                (String) row[3],
+                ((Number) row[4]).longValue(),
+                ((Number) row[5]).longValue(),
+                (BigDecimal) row[6]
+        );
+    }
+
+    // Ячейка, начинающаяся с =, +, -, @, табуляции или CR, выполняется Excel как формула.
+    // Экранируются только столбцы со свободным текстом, который вводят пользователи: имена, артикул, название
+    private static String formulaSafe(String cell) {
+        if (cell != null && !cell.isEmpty() && "=+-@\t\r".indexOf(cell.charAt(0)) >= 0) {
+            return "'" + cell;
+        }
+        return cell;
+    }
+
+    // Номер вида +79991234567 Excel читает как число, а апостроф испортил бы его для обзвона и импорта
+    private static String phone(String cell) {
+        return cell != null && PHONE.matcher(cell).matches() ? cell : formulaSafe(cell);
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String amount(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+}
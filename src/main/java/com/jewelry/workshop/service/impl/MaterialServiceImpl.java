@@ -24,8 +24,7 @@ public class MaterialServiceImpl implements MaterialService {
     @Override
     @Transactional(readOnly = true)
     public Page<MaterialResponseDTO> getAllMaterials(Pageable pageable) {
-        return materialRepository.findAll(pageable)
-                .map(materialMapper::toDto);
+        return materialRepository.findResponsePage(pageable);
     }
 
     @Override
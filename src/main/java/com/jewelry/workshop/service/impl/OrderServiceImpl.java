@@ -1,28 +1,35 @@
 package com.jewelry.workshop.service.impl;
 
+import com.jewelry.workshop.domain.event.OrderCancelledEvent;
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderCreateDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO;
+import com.jewelry.workshop.domain.model.dto.orderitem.OrderItemResponseDTO;
 import com.jewelry.workshop.domain.model.dto.report.DailyOrderStatsDTO;
 import com.jewelry.workshop.domain.model.entity.*;
 import com.jewelry.workshop.domain.repository.*;
+import com.jewelry.workshop.infrastructure.messaging.DomainEventOutbox;
 import com.jewelry.workshop.presentation.exception.UnauthorizedAccessException;
 import com.jewelry.workshop.service.interfaces.DiscountService;
 import com.jewelry.workshop.service.interfaces.OrderService;
+import com.jewelry.workshop.service.interfaces.StockReservationService;
+import com.jewelry.workshop.service.inventory.StripedInventoryEngine;
 import com.jewelry.workshop.service.mapper.OrderMapper;
+import com.jewelry.workshop.service.report.SalesRollupWriter;
+import com.jewelry.workshop.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,59 +37,156 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final ClientRepository clientRepository;
-    private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
     private final UserRepository userRepository;
     private final DiscountService discountService;
+    private final StockReservationService stockReservationService;
+    private final DomainEventOutbox domainEventOutbox;
+    private final SalesRollupWriter salesRollupWriter;
+    private final StripedInventoryEngine inventoryEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String ORDER_CURSOR_KEY = "orderDatetime";
+    // Граница первой страницы: позже любого заказа и в пределах диапазона timestamp PostgreSQL
+    private static final Instant FIRST_PAGE_DATETIME = Instant.parse("9999-12-31T23:59:59Z");
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> getMyOrders(Long clientId, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderRepository.findByClientIdAndStatusNot(
+        Page<OrderResponseDTO> orders = orderRepository.findClientResponsePageExcludingStatus(
                 clientId, Order.STATUS_CANCELLED, pageable
         );
-        return orders.map(orderMapper::toDto);
+        attachItems(orders.getContent());
+        return orders;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> getOrderHistory(Long clientId, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderRepository.findByClientId(clientId, pageable);
-        return orders.map(orderMapper::toDto);
+        Page<OrderResponseDTO> orders = orderRepository.findClientResponsePage(clientId, pageable);
+        attachItems(orders.getContent());
+        return orders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderResponseDTO> getAllOrdersAfter(String cursor, int size) {
+        size = KeysetCursor.pageSize(size);
+        KeysetCursor after = decodeOrderCursor(cursor);
+        List<Order> orders = orderRepository.findPageAfter(
+                afterDatetime(after), afterId(after), PageRequest.of(0, size + 1));
+        return toCursorPage(orders, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderResponseDTO> getMyOrdersAfter(Long clientId, String cursor, int size) {
+        size = KeysetCursor.pageSize(size);
+        KeysetCursor after = decodeOrderCursor(cursor);
+        List<Order> orders = orderRepository.findClientPageAfterExcludingStatus(
+                clientId, Order.STATUS_CANCELLED, afterDatetime(after), afterId(after), PageRequest.of(0, size + 1));
+        return toCursorPage(orders, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderResponseDTO> getOrderHistoryAfter(Long clientId, String cursor, int size) {
+        size = KeysetCursor.pageSize(size);
+        KeysetCursor after = decodeOrderCursor(cursor);
+        List<Order> orders = orderRepository.findClientPageAfter(
+                clientId, afterDatetime(after), afterId(after), PageRequest.of(0, size + 1));
+        return toCursorPage(orders, size);
+    }
+
+    private KeysetCursor decodeOrderCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        return KeysetCursor.decode(cursor, ORDER_CURSOR_KEY, true);
+    }
+
+    private Instant afterDatetime(KeysetCursor after) {
+        if (after == null) {
+            return FIRST_PAGE_DATETIME;
+        }
+        try {
+            return Instant.parse(after.value());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+    }
+
+    private Long afterId(KeysetCursor after) {
+        return after == null ? Long.MAX_VALUE : after.id();
+    }
+
+    // Запрашивается на одну запись больше: она показывает наличие следующей страницы без COUNT(*)
+    private CursorPageDTO<OrderResponseDTO> toCursorPage(List<Order> orders, int size) {
+        boolean hasNext = orders.size() > size;
+        List<Order> page = hasNext ? orders.subList(0, size) : orders;
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(ORDER_CURSOR_KEY, true, last.getId(), last.getOrderDatetime().toString()).encode();
+        }
+        loadItems(page);
+        List<OrderResponseDTO> items = page.stream()
+                .map(orderMapper::toDto)
+                .toList();
+        return new CursorPageDTO<>(items, nextCursor, hasNext, size);
+    }
+
+    // Страница заказов грузится с клиентами и пользователями (граф Order.withClient), позиции с изделиями —
+    // одним дополнительным запросом: два запроса на страницу
+    private void loadItems(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            orderRepository.fetchItemsWithProducts(orders);
+        }
+    }
+
+    // То же для страниц, спроецированных в DTO: позиции всех заказов страницы — одним запросом
+    private void attachItems(List<OrderResponseDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Long, OrderResponseDTO> byId = new HashMap<>();
+        for (OrderResponseDTO order : orders) {
+            order.setItems(new ArrayList<>());
+            byId.put(order.getId(), order);
+        }
+        for (OrderItemResponseDTO item : orderItemRepository.findResponseRowsByOrderIds(byId.keySet())) {
+            byId.get(item.getOrderId()).getItems().add(item);
+        }
     }
 
     @Override
-    @Transactional
     public OrderResponseDTO createOrder(Long clientId, OrderCreateDTO dto) {
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (var itemDto : dto.getItems()) {
+            requested.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+
+        // Бюджет остатков арендуется до открытия транзакции, чтобы не занимать второе соединение из пула
+        if (inventoryEngine.isEnabled()) {
+            inventoryEngine.topUp(requested);
+        }
+        return transactionTemplate.execute(status -> placeOrder(clientId, dto, requested));
+    }
+
+    private OrderResponseDTO placeOrder(Long clientId, OrderCreateDTO dto, Map<Long, Integer> requested) {
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new UnauthorizedAccessException("Клиент не найден"));
 
-        Set<OrderItem> items = new HashSet<>();
-        for (var itemDto : dto.getItems()) {
-            // Атомарно пытаемся уменьшить остаток
-            int updated = productRepository.decreaseStockIfAvailable(itemDto.getProductId(), itemDto.getQuantity());
-            if (updated == 0) {
-                Product product = productRepository.findById(itemDto.getProductId())
-                        .orElseThrow(() -> new RuntimeException("Товар с ID " + itemDto.getProductId() + " не найден"));
-                throw new RuntimeException(
-                        "Недостаточно товара \"" + product.getName() + "\" на складе. Доступно: " +
-                                product.getInStock() + ", запрошено: " + itemDto.getQuantity()
-                );
-            }
-
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Товар с ID " + itemDto.getProductId() + " не найден"));
-
-            if (!product.isAvailableForSale()) {
-                throw new RuntimeException("Товар \"" + product.getName() + "\" недоступен для заказа");
-            }
+        Map<Long, Product> products = stockReservationService.lockAvailable(requested);
 
+        Set<OrderItem> items = new HashSet<>();
+        for (var entry : requested.entrySet()) {
             OrderItem item = new OrderItem();
-            item.setProduct(product);
-            item.setQuantity(itemDto.getQuantity());
+            item.setProduct(products.get(entry.getKey()));
+            item.setQuantity(entry.getValue());
             items.add(item);
         }
 
@@ -104,13 +208,16 @@ public class OrderServiceImpl implements OrderService {
         order.calculateTotals();
 
         Order saved = orderRepository.save(order);
+        stockReservationService.placeHolds(saved);
+        salesRollupWriter.orderPlaced(saved.getId());
+        domainEventOutbox.orderCreated(saved);
         return orderMapper.toDto(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(Long orderId, Long requestingClientId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findDetailedById(orderId)
                 .orElseThrow(() -> new RuntimeException("Заказ не найден"));
 
         if (requestingClientId != null && !order.getClient().getId().equals(requestingClientId)) {
@@ -123,7 +230,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public void cancelOrder(Long orderId, Long clientId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Заказ не найден"));
         if (!order.getClient().getId().equals(clientId)) {
             throw new UnauthorizedAccessException("Доступ запрещён");
@@ -131,23 +238,21 @@ public class OrderServiceImpl implements OrderService {
         if (!order.canBeCancelled()) {
             throw new RuntimeException("Невозможно отменить заказ со статусом: " + order.getStatus());
         }
+        String previousStatus = order.getStatus();
         order.cancel();
-
-        for (OrderItem item : order.getOrderItems()) {
-            item.getProduct().increaseStock(item.getQuantity());
-        }
+        stockReservationService.release(order);
 
         orderRepository.save(order);
+        salesRollupWriter.orderCancelled(orderId, previousStatus);
+        domainEventOutbox.orderCancelled(orderId, clientId, previousStatus, OrderCancelledEvent.REASON_CLIENT);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> getAllOrders(Pageable pageable) {
-        Page<Order> orders = orderRepository.findAll(pageable);
-        List<OrderResponseDTO> dtos = orders.getContent().stream()
-                .map(orderMapper::toDto)
-                .collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, orders.getTotalElements());
+        Page<OrderResponseDTO> orders = orderRepository.findResponsePage(pageable);
+        attachItems(orders.getContent());
+        return orders;
     }
 
     @Override
@@ -160,7 +265,7 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("Статус не может быть пустым");
         }
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Заказ с ID " + orderId + " не найден"));
 
         User currentUser = userRepository.findById(currentUserId)
@@ -180,15 +285,30 @@ public class OrderServiceImpl implements OrderService {
                     "Невозможно изменить статус с '" + order.getStatus() + "' на '" + newStatus + "'");
         }
 
+        String previousStatus = order.getStatus();
         order.updateStatus(newStatus);
 
-        if (Order.STATUS_CANCELLED.equals(newStatus)) {
-            for (OrderItem item : order.getOrderItems()) {
-                item.getProduct().increaseStock(item.getQuantity());
-            }
+        switch (newStatus) {
+            case Order.STATUS_CANCELLED -> stockReservationService.release(order);
+            case Order.STATUS_PROCESSING -> stockReservationService.pinHolds(order);
+            case Order.STATUS_COMPLETED, Order.STATUS_DELIVERED -> stockReservationService.settle(order);
+            default -> { }
         }
 
         orderRepository.save(order);
+
+        if (Order.STATUS_CANCELLED.equals(newStatus)) {
+            salesRollupWriter.orderCancelled(orderId, previousStatus);
+        } else if (SalesRollupWriter.isCompleted(newStatus) && !SalesRollupWriter.isCompleted(previousStatus)) {
+            salesRollupWriter.orderCompleted(orderId);
+        }
+
+        Long clientId = order.getClient().getId();
+        if (Order.STATUS_CANCELLED.equals(newStatus)) {
+            domainEventOutbox.orderCancelled(orderId, clientId, previousStatus, OrderCancelledEvent.REASON_STAFF);
+        } else {
+            domainEventOutbox.orderStatusChanged(orderId, clientId, previousStatus, newStatus);
+        }
     }
 
     private boolean isAllowedTransition(String currentStatus, String newStatus) {
@@ -1,12 +1,21 @@
 package com.jewelry.workshop.service.impl;
 
+import com.jewelry.workshop.domain.event.ProductChangedEvent;
+import com.jewelry.workshop.domain.event.StockChangedEvent;
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
 import com.jewelry.workshop.domain.model.dto.product.*;
 import com.jewelry.workshop.domain.model.entity.Product;
 import com.jewelry.workshop.domain.repository.ProductRepository;
+import com.jewelry.workshop.domain.repository.StockReservationRepository;
+import com.jewelry.workshop.infrastructure.cache.ProductCacheKeys;
+import com.jewelry.workshop.infrastructure.messaging.DomainEventOutbox;
+import com.jewelry.workshop.service.catalog.CatalogIndex;
 import com.jewelry.workshop.service.interfaces.ProductService;
+import com.jewelry.workshop.service.inventory.StripedInventoryEngine;
 import com.jewelry.workshop.service.mapper.ProductMapper;
+import com.jewelry.workshop.util.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +25,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,25 +36,93 @@ public class ProductServiceImpl implements ProductService {
 
     private  final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final StockReservationRepository reservationRepository;
+    private final StripedInventoryEngine inventoryEngine;
+    private final CatalogIndex catalogIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DomainEventOutbox domainEventOutbox;
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(
+            value = ProductCacheKeys.PRODUCT_SEARCH,
+            key = "@productCacheKeys.search(#userRole, #criteria, #page, #size)"
+    )
     public ProductSearchResponseDTO searchProducts(String userRole, ProductSearchDTO criteria, int page, int size) {
-        String sortByField = switch (criteria.getSortBy()) {
-            case "price" -> "price";
-            case "weight" -> "weight";
-            case "stock" -> "inStock";
-            case "created" -> "createdAt";
-            default -> "name";
-        };
+        String sortByField = resolveSortField(criteria.getSortBy());
 
         Sort.Direction direction = "desc".equalsIgnoreCase(criteria.getSortDirection())
                 ? Sort.Direction.DESC
                 : Sort.Direction.ASC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortByField));
+        if (criteria.getName() != null && !criteria.getName().isBlank()) {
+            // Без явной сортировки результаты поиска по названию упорядочены по релевантности
+            String textSortField = criteria.getSortBy() == null || "relevance".equals(criteria.getSortBy())
+                    ? null
+                    : sortByField;
+            Page<Product> products = productRepository.searchByText(
+                    userRole, criteria, textSortField, direction == Sort.Direction.DESC, PageRequest.of(page, size));
+            return toSearchResponse(products.map(productMapper::toDto));
+        }
+        if (catalogIndex.isReady()) {
+            return toSearchResponse(catalogIndex.search(
+                    userRole, criteria, sortByField, direction == Sort.Direction.DESC, page, size));
+        }
+        return toSearchResponse(
+                searchByCriteria(userRole, criteria, PageRequest.of(page, size, Sort.by(direction, sortByField, "id"))));
+    }
+
+    private ProductSearchResponseDTO toSearchResponse(Page<ProductResponseDTO> products) {
+        List<ProductResponseDTO> items = products.getContent();
+
+        // Ответ кешируется, поэтому это обычный класс, а не анонимный подкласс
+        ProductSearchResponseDTO response = new ProductSearchResponseDTO();
+        response.setItems(items);
+        response.setPage(products.getNumber());
+        response.setSize(products.getSize());
+        response.setTotalElements(products.getTotalElements());
+        response.setTotalPages(products.getTotalPages());
+        response.setFirst(products.isFirst());
+        response.setLast(products.isLast());
+        response.setEmpty(products.isEmpty());
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductResponseDTO> searchProductsAfter(String userRole, ProductSearchDTO criteria, String cursor, int size) {
+        size = KeysetCursor.pageSize(size);
+        String sortByField = resolveSortField(criteria.getSortBy());
+        boolean descending = "desc".equalsIgnoreCase(criteria.getSortDirection());
+
+        Comparable<?> afterValue = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor, sortByField, descending);
+            afterValue = parseSortValue(sortByField, after.value());
+            afterId = after.id();
+        }
+
+        // Лишняя запись показывает, есть ли следующая страница, без COUNT(*)
+        List<Product> products = productRepository.findPageAfter(
+                userRole, criteria, sortByField, descending, afterValue, afterId, size + 1);
+
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(sortByField, descending, last.getId(), formatSortValue(sortByField, last)).encode();
+        }
+
+        List<ProductResponseDTO> items = page.stream()
+                .map(productMapper::toDto)
+                .toList();
+        return new CursorPageDTO<>(items, nextCursor, hasNext, size);
+    }
 
-        Page<Product> products = productRepository.searchProducts(
+    private Page<ProductResponseDTO> searchByCriteria(String userRole, ProductSearchDTO criteria, Pageable pageable) {
+        return productRepository.searchProducts(
                 userRole,
                 criteria.getName(),
                 criteria.getType(),
@@ -55,28 +134,46 @@ public class ProductServiceImpl implements ProductService {
                 criteria.getIsAvailable(),
                 pageable
         );
+    }
 
-        List<ProductResponseDTO> items = products.getContent().stream()
-                .map(productMapper::toDto)
-                .toList();
+    private String resolveSortField(String sortBy) {
+        return switch (sortBy == null ? "name" : sortBy) {
+            case "price" -> "price";
+            case "weight" -> "weight";
+            case "stock" -> "inStock";
+            case "created" -> "createdAt";
+            default -> "name";
+        };
+    }
 
-        return new ProductSearchResponseDTO() {{
-            setItems(items);
-            setPage(products.getNumber());
-            setSize(products.getSize());
-            setTotalElements(products.getTotalElements());
-            setTotalPages(products.getTotalPages());
-            setFirst(products.isFirst());
-            setLast(products.isLast());
-            setEmpty(products.isEmpty());
-        }};
+    private String formatSortValue(String sortField, Product product) {
+        return switch (sortField) {
+            case "price" -> product.getPrice().toPlainString();
+            case "weight" -> product.getWeight().toPlainString();
+            case "inStock" -> String.valueOf(product.getInStock());
+            case "createdAt" -> product.getCreatedAt().toString();
+            default -> product.getName();
+        };
+    }
+
+    private Comparable<?> parseSortValue(String sortField, String value) {
+        try {
+            return switch (sortField) {
+                case "price", "weight" -> new BigDecimal(value);
+                case "inStock" -> Integer.valueOf(value);
+                case "createdAt" -> Instant.parse(value);
+                default -> value;
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
-            value = "products",
-            key = "{#p0, #userRole}",
+            value = ProductCacheKeys.PRODUCTS,
+            key = "@productCacheKeys.byId(#productId, #userRole)",
             unless = "#result == null || #result.price.compareTo(T(java.math.BigDecimal).valueOf(200000L)) > 0"
     )
     public ProductResponseDTO getProductById(Long productId, String userRole) {
@@ -110,12 +207,13 @@ public class ProductServiceImpl implements ProductService {
         product.setInStock(dto.getInStock());
         product.setIsAvailable(dto.getInStock() > 0);
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
+        domainEventOutbox.stockChanged(saved, StockChangedEvent.REASON_MANUAL);
         return productMapper.toDto(saved);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public ProductResponseDTO updateProduct(Long id, ProductUpdateDTO dto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Изделие не найдено"));
@@ -128,21 +226,26 @@ public class ProductServiceImpl implements ProductService {
         if (dto.getInStock() != null) {
             product.setInStock(dto.getInStock());
             product.setIsAvailable(dto.getInStock() > 0);
+            returnInventoryBudget(id);
         }
         if (dto.getIsAvailable() != null) product.setIsAvailable(dto.getIsAvailable());
 
         Product updated = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        if (dto.getInStock() != null) {
+            domainEventOutbox.stockChanged(updated, StockChangedEvent.REASON_MANUAL);
+        }
         return productMapper.toDto(updated);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "products", key = "#id")
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new EntityNotFoundException("Изделие не найдено");
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 
     @Override
@@ -158,36 +261,42 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("Остаток не может быть отрицательным");
         }
 
-        Product product = productRepository.findById(id)
+        // Строка блокируется, как при оформлении заказа: иначе новый резерв мог бы появиться между
+        // проверкой и записью остатка
+        Product product = productRepository.findAllByIdForUpdate(List.of(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new EntityNotFoundException("Изделие не найдено"));
 
+        // Зарезервированное количество списывается при завершении заказа; остаток ниже него
+        // сделал бы такие заказы незавершаемыми
+        long held = reservationRepository.sumHeldByProductIds(List.of(id)).stream()
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .sum();
+        if (newStock < held) {
+            throw new IllegalStateException(
+                    "Остаток не может быть меньше зарезервированного под заказы количества: " + held);
+        }
+
         product.setInStock(newStock);
         product.setIsAvailable(newStock > 0);
         productRepository.save(product);
+        returnInventoryBudget(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
+        domainEventOutbox.stockChanged(product, StockChangedEvent.REASON_MANUAL);
+    }
 
+    // Арендованный под старый остаток бюджет больше не актуален
+    private void returnInventoryBudget(Long productId) {
+        if (inventoryEngine.isEnabled()) {
+            inventoryEngine.returnBudget(List.of(productId));
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     public ProductSearchResponseDTO getLowStockProducts(int page, int size, Integer threshold) {
         int actualThreshold = (threshold != null && threshold >= 0) ? threshold : 5;
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productRepository.findByInStockLessThanEqual(actualThreshold, pageable);
-
-        List<ProductResponseDTO> items = products.getContent().stream()
-                .map(productMapper::toDto)
-                .toList();
-
-        return new ProductSearchResponseDTO() {{
-            setItems(items);
-            setPage(products.getNumber());
-            setSize(products.getSize());
-            setTotalElements(products.getTotalElements());
-            setTotalPages(products.getTotalPages());
-            setFirst(products.isFirst());
-            setLast(products.isLast());
-            setEmpty(products.isEmpty());
-        }};
+        return toSearchResponse(productRepository.findLowStockPage(actualThreshold, PageRequest.of(page, size)));
     }
 
 }
@@ -4,152 +4,178 @@ import com.jewelry.workshop.domain.model.dto.report.ClientReportDTO;
 import com.jewelry.workshop.domain.model.dto.report.ProductReportItemDTO;
 import com.jewelry.workshop.domain.model.dto.report.SalesReportDTO;
 import com.jewelry.workshop.domain.model.entity.Client;
-import com.jewelry.workshop.domain.model.entity.Order;
 import com.jewelry.workshop.domain.model.entity.Product;
 import com.jewelry.workshop.domain.repository.*;
 import com.jewelry.workshop.service.interfaces.ReportService;
+import com.jewelry.workshop.service.report.ReportQueryExecutor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+// Отчёты строятся по дневным агрегатам продаж (см. SalesRollupWriter): период округляется до дней по UTC,
+// отменённые заказы в суммах и количествах не учитываются
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
-    private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
+    private static final int PRODUCT_REPORT_LIMIT = 100;
+
+    private final SalesRollupRepository rollupRepository;
     private final ClientRepository clientRepository;
     private final ProductRepository productRepository;
+    private final ReportQueryExecutor queryExecutor;
 
+    // Запросы отчёта независимы и выполняются параллельно: время ответа определяется самым медленным из них
     @Override
     public SalesReportDTO getSalesReport(Instant start, Instant end) {
-        LocalDateTime startDate = LocalDateTime.ofInstant(start, ZoneId.systemDefault());
-        LocalDateTime endDate = LocalDateTime.ofInstant(end, ZoneId.systemDefault());
-
-        List<Object[]> stats = orderRepository.getClientStatisticsInPeriod(start, end);
-        long totalOrders = orderRepository.findOrdersByCriteria(
-                null, null, start, end, null, null, PageRequest.of(0, 1)
-        ).getTotalElements();
-
-        BigDecimal totalRevenue = stats.stream()
-                .map(row -> (BigDecimal) row[4])
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        long uniqueClients = stats.size();
-
-        String mostPopularProduct = "Не определён";
-        String mostActiveClient = "Не определён";
-
-        var bestSellingPage = orderItemRepository.findBestSellingProductsInPeriod(start, end, PageRequest.of(0, 1));
-        if (!bestSellingPage.isEmpty()) {
-            Object[] first = bestSellingPage.getContent().get(0);
-            Long productId = ((Number) first[0]).longValue();
-            var productOpt = productRepository.findById(productId);
-            mostPopularProduct = productOpt.map(p -> p.getName() + " (SKU: " + p.getSku() + ")").orElse("N/A");
-        }
-
-        if (!stats.isEmpty()) {
-            Object[] top = stats.get(0);
-            String lastName = (String) top[1];
-            String firstName = (String) top[2];
-            mostActiveClient = lastName + " " + firstName;
-        }
+        LocalDate startDay = toDay(start);
+        LocalDate endDay = toDay(end);
+
+        CompletableFuture<Object[]> totalsQuery = queryExecutor.submit(
+                () -> rollupRepository.sumTotals(startDay, endDay).get(0));
+        CompletableFuture<Long> uniqueClientsQuery = queryExecutor.submit(
+                () -> rollupRepository.countClientsWithOrders(startDay, endDay));
+        CompletableFuture<String> mostPopularProductQuery = queryExecutor.submit(() -> {
+            Long productId = rollupRepository.findTopProductIdByQuantity(startDay, endDay);
+            if (productId == null) {
+                return "Не определён";
+            }
+            return productRepository.findById(productId)
+                    .map(p -> p.getName() + " (SKU: " + p.getSku() + ")")
+                    .orElse("N/A");
+        });
+        CompletableFuture<String> mostActiveClientQuery = queryExecutor.submit(() -> {
+            Long clientId = rollupRepository.findTopClientIdByRevenue(startDay, endDay);
+            if (clientId == null) {
+                return "Не определён";
+            }
+            return clientRepository.findById(clientId)
+                    .map(c -> c.getLastName() + " " + c.getFirstName())
+                    .orElse("Не определён");
+        });
+        queryExecutor.awaitAll(totalsQuery, uniqueClientsQuery, mostPopularProductQuery, mostActiveClientQuery);
+
+        Object[] totals = totalsQuery.join();
+        long totalOrders = ((Number) totals[0]).longValue();
+        BigDecimal totalRevenue = toBigDecimal(totals[1]);
+        BigDecimal totalDiscounts = toBigDecimal(totals[2]);
 
         BigDecimal avgOrderValue = totalOrders > 0
-                ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, BigDecimal.ROUND_HALF_UP)
+                ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        BigDecimal totalDiscounts = orderRepository.findByOrderDatetimeBetween(startDate, endDate).stream()
-                .map(Order::getDiscountAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        String finalMostPopularProduct = mostPopularProduct;
-        String finalMostActiveClient = mostActiveClient;
-        return new SalesReportDTO() {{
-            setPeriodStart(startDate);
-            setPeriodEnd(endDate);
-            setTotalOrders(totalOrders);
-            setTotalRevenue(totalRevenue);
-            setAverageOrderValue(avgOrderValue);
-            setUniqueClients(uniqueClients);
-            setMostPopularProduct(finalMostPopularProduct);
-            setMostActiveClient(finalMostActiveClient);
-            setTotalDiscounts(totalDiscounts);
-        }};
+        SalesReportDTO report = new SalesReportDTO();
+        report.setPeriodStart(LocalDateTime.ofInstant(start, ZoneId.systemDefault()));
+        report.setPeriodEnd(LocalDateTime.ofInstant(end, ZoneId.systemDefault()));
+        report.setTotalOrders(totalOrders);
+        report.setTotalRevenue(totalRevenue);
+        report.setAverageOrderValue(avgOrderValue);
+        report.setUniqueClients(uniqueClientsQuery.join());
+        report.setMostPopularProduct(mostPopularProductQuery.join());
+        report.setMostActiveClient(mostActiveClientQuery.join());
+        report.setTotalDiscounts(totalDiscounts);
+        return report;
     }
 
     @Override
     public ClientReportDTO getClientReport(Instant start, Instant end) {
-        long totalClients = clientRepository.count();
-        long permanentClients = clientRepository.countPermanentClients();
-        long newClients = clientRepository.countNewClientsSince(start);
+        LocalDate startDay = toDay(start);
+        LocalDate endDay = toDay(end);
+
+        CompletableFuture<Long> totalClientsQuery = queryExecutor.submit(clientRepository::count);
+        CompletableFuture<Long> permanentClientsQuery = queryExecutor.submit(clientRepository::countPermanentClients);
+        CompletableFuture<Long> newClientsQuery = queryExecutor.submit(() -> clientRepository.countNewClientsSince(start));
+        CompletableFuture<Object[]> allTimeQuery = queryExecutor.submit(() -> rollupRepository.sumAllTimeTotals().get(0));
+        CompletableFuture<String> topByRevenueQuery = queryExecutor.submit(
+                () -> clientName(rollupRepository.findTopClientIdByRevenue(startDay, endDay)));
+        CompletableFuture<String> topByOrdersQuery = queryExecutor.submit(
+                () -> clientName(rollupRepository.findTopClientIdByOrders(startDay, endDay)));
+        queryExecutor.awaitAll(totalClientsQuery, permanentClientsQuery, newClientsQuery, allTimeQuery,
+                topByRevenueQuery, topByOrdersQuery);
+
+        long totalClients = totalClientsQuery.join();
+        Object[] allTime = allTimeQuery.join();
+        long totalOrders = ((Number) allTime[0]).longValue();
+        BigDecimal totalSpentAll = toBigDecimal(allTime[1]);
 
         double avgOrdersPerClient = totalClients > 0
-                ? (double) orderRepository.count() / totalClients
+                ? (double) totalOrders / totalClients
                 : 0.0;
-
-        BigDecimal totalSpentAll = orderRepository.findAll().stream()
-                .map(Order::getFinalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal averageLTV = totalClients > 0
-                ? totalSpentAll.divide(BigDecimal.valueOf(totalClients), 2, BigDecimal.ROUND_HALF_UP)
+                ? totalSpentAll.divide(BigDecimal.valueOf(totalClients), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        String topClientByRevenue = "Нет данных";
-        String topClientByOrders = "Нет данных";
-
-        var topClients = clientRepository.getPermanentClientDetails(PageRequest.of(0, 1));
-        if (!topClients.isEmpty()) {
-            Object[] top = topClients.get(0);
-            Client client = (Client) top[0];
-            topClientByRevenue = client.getFullName();
-        }
-
-        var stats = clientRepository.getClientStatistics(start, end, null);
-        if (!stats.isEmpty()) {
-            Object[] top = stats.get(0);
-            Client client = (Client) top[0];
-            topClientByOrders = client.getFullName();
-        }
-
-        String finalTopClientByOrders = topClientByOrders;
-        String finalTopClientByRevenue = topClientByRevenue;
-        return new ClientReportDTO() {{
-            setTotalClients(totalClients);
-            setPermanentClients(permanentClients);
-            setNewClients(newClients);
-            setAverageOrdersPerClient(avgOrdersPerClient);
-            setAverageLTV(averageLTV);
-            setTopClientByRevenue(finalTopClientByRevenue);
-            setTopClientByOrders(finalTopClientByOrders);
-        }};
+        ClientReportDTO report = new ClientReportDTO();
+        report.setTotalClients(totalClients);
+        report.setPermanentClients(permanentClientsQuery.join());
+        report.setNewClients(newClientsQuery.join());
+        report.setAverageOrdersPerClient(avgOrdersPerClient);
+        report.setAverageLTV(averageLTV);
+        report.setTopClientByRevenue(topByRevenueQuery.join());
+        report.setTopClientByOrders(topByOrdersQuery.join());
+        return report;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductReportItemDTO> getProductReport(Instant start, Instant end) {
-        var stats = productRepository.getProductSalesStatistics(start, end, PageRequest.of(0, 100));
+        List<Object[]> stats = rollupRepository.findTopProductsByRevenue(
+                toDay(start), toDay(end), PRODUCT_REPORT_LIMIT);
+        if (stats.isEmpty()) {
+            return List.of();
+        }
 
-        return stats.stream().map(row -> {
-            Product product = (Product) row[0];
-            Long orderCount = ((Number) row[1]).longValue();
-            Long totalSold = ((Number) row[2]).longValue();
-            BigDecimal totalRevenue = (BigDecimal) row[3];
+        List<Long> productIds = stats.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
 
+        List<ProductReportItemDTO> report = new ArrayList<>(stats.size());
+        for (Object[] row : stats) {
+            Product product = products.get(((Number) row[0]).longValue());
+            if (product == null) {
+                continue;
+            }
             ProductReportItemDTO dto = new ProductReportItemDTO();
             dto.setProductId(product.getId());
             dto.setProductName(product.getName());
             dto.setSku(product.getSku());
-            dto.setOrderCount(orderCount);
-            dto.setTotalSold(totalSold);
-            dto.setTotalRevenue(totalRevenue);
+            dto.setOrderCount(((Number) row[1]).longValue());
+            dto.setTotalSold(((Number) row[2]).longValue());
+            dto.setTotalRevenue(toBigDecimal(row[3]));
             dto.setInStock(product.getInStock());
+            report.add(dto);
+        }
+        return report;
+    }
+
+    private String clientName(Long clientId) {
+        if (clientId == null) {
+            return "Нет данных";
+        }
+        return clientRepository.findById(clientId)
+                .map(Client::getFullName)
+                .orElse("Нет данных");
+    }
+
+    private static LocalDate toDay(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
 
-            return dto;
-        }).toList();
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bd) return bd;
+        return new BigDecimal(value.toString());
     }
-}
\ No newline at end of file
+}
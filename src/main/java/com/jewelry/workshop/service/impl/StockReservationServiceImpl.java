@@ -0,0 +1,201 @@
+package com.jewelry.workshop.service.impl;
+
+import com.jewelry.workshop.config.properties.StockReservationProperties;
+import com.jewelry.workshop.domain.event.OrderCancelledEvent;
+import com.jewelry.workshop.domain.event.ProductChangedEvent;
+import com.jewelry.workshop.domain.event.StockChangedEvent;
+import com.jewelry.workshop.domain.model.entity.Order;
+import com.jewelry.workshop.domain.model.entity.OrderItem;
+import com.jewelry.workshop.domain.model.entity.Product;
+import com.jewelry.workshop.domain.model.entity.StockReservation;
+import com.jewelry.workshop.domain.repository.InventoryLeaseRepository;
+import com.jewelry.workshop.domain.repository.ProductRepository;
+import com.jewelry.workshop.domain.repository.StockReservationRepository;
+import com.jewelry.workshop.infrastructure.messaging.DomainEventOutbox;
+import com.jewelry.workshop.service.interfaces.StockReservationService;
+import com.jewelry.workshop.service.inventory.StripedInventoryEngine;
+import com.jewelry.workshop.service.report.SalesRollupWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final InventoryLeaseRepository leaseRepository;
+    private final StockReservationProperties properties;
+    private final StripedInventoryEngine inventoryEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DomainEventOutbox domainEventOutbox;
+    private final SalesRollupWriter salesRollupWriter;
+
+    // Блокирует строки изделий (без UPDATE) и проверяет остаток за вычетом активных резервов
+    // и бюджетов, арендованных узлами приложения
+    @Override
+    @Transactional
+    public Map<Long, Product> lockAvailable(Map<Long, Integer> requested) {
+        if (inventoryEngine.isEnabled()) {
+            if (inventoryEngine.tryAcquire(requested)) {
+                return toProductMap(productRepository.findAllById(requested.keySet()), requested);
+            }
+            inventoryEngine.returnBudget(requested.keySet());
+        }
+
+        Map<Long, Product> products = toProductMap(productRepository.findAllByIdForUpdate(requested.keySet()), requested);
+
+        Map<Long, Long> reserved = new HashMap<>();
+        for (Object[] row : reservationRepository.sumHeldByProductIds(requested.keySet())) {
+            reserved.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        if (inventoryEngine.isEnabled()) {
+            Map<Long, Long> leased = new HashMap<>();
+            for (Object[] row : leaseRepository.sumActiveByProductIds(requested.keySet(), Instant.now())) {
+                leased.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            // Освобождённый этим узлом бюджет ещё числится в аренде, пока планировщик не спишет его
+            Map<Long, Long> pending = inventoryEngine.pendingShrink(requested.keySet());
+            leased.forEach((productId, quantity) -> reserved.merge(
+                    productId, quantity - Math.min(quantity, pending.getOrDefault(productId, 0L)), Long::sum));
+        }
+
+        for (var entry : requested.entrySet()) {
+            Product product = products.get(entry.getKey());
+            long available = product.getInStock() - reserved.getOrDefault(product.getId(), 0L);
+            if (available < entry.getValue()) {
+                throw new RuntimeException(
+                        "Недостаточно товара \"" + product.getName() + "\" на складе. Доступно: " +
+                                Math.max(available, 0) + ", запрошено: " + entry.getValue()
+                );
+            }
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional
+    public void placeHolds(Order order) {
+        Instant expiresAt = Instant.now().plus(properties.getHoldTtl());
+        List<StockReservation> holds = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            holds.add(new StockReservation(order, item.getProduct(), item.getQuantity(), expiresAt));
+        }
+        reservationRepository.saveAll(holds);
+    }
+
+    // Заказ взят в работу — резервы больше не истекают
+    @Override
+    @Transactional
+    public void pinHolds(Order order) {
+        reservationRepository.clearExpiryByOrderId(order.getId());
+    }
+
+    @Override
+    @Transactional
+    public void settle(Order order) {
+        List<StockReservation> holds = reservationRepository.findByOrderIdAndStatus(
+                order.getId(), StockReservation.STATUS_HELD);
+        if (holds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Product> products = lockProducts(holds);
+        for (StockReservation hold : holds) {
+            products.get(hold.getProduct().getId()).decreaseStock(hold.getQuantity());
+            hold.setStatus(StockReservation.STATUS_SETTLED);
+        }
+        products.values().forEach(product -> publishStockChanged(product, StockChangedEvent.REASON_SETTLED));
+    }
+
+    @Override
+    @Transactional
+    public void release(Order order) {
+        List<StockReservation> reservations = reservationRepository.findByOrderId(order.getId());
+
+        // Заказы, оформленные до появления резервов, списывали остаток сразу
+        if (reservations.isEmpty()) {
+            for (OrderItem item : order.getOrderItems()) {
+                item.getProduct().increaseStock(item.getQuantity());
+                publishStockChanged(item.getProduct(), StockChangedEvent.REASON_RELEASED);
+            }
+            return;
+        }
+
+        List<StockReservation> settled = reservations.stream()
+                .filter(StockReservation::isSettled)
+                .toList();
+        if (!settled.isEmpty()) {
+            Map<Long, Product> products = lockProducts(settled);
+            for (StockReservation reservation : settled) {
+                products.get(reservation.getProduct().getId()).increaseStock(reservation.getQuantity());
+            }
+            products.values().forEach(product -> publishStockChanged(product, StockChangedEvent.REASON_RELEASED));
+        }
+
+        for (StockReservation reservation : reservations) {
+            if (reservation.isHeld() || reservation.isSettled()) {
+                reservation.setStatus(StockReservation.STATUS_RELEASED);
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public int expireHolds(int batchSize) {
+        List<Long> orderIds = reservationRepository.findOrderIdsWithExpiredHolds(
+                Instant.now(), PageRequest.of(0, batchSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> cancelledIds = new ArrayList<>();
+        for (Object[] row : reservationRepository.cancelPendingOrdersAndRelease(orderIds)) {
+            Long orderId = ((Number) row[0]).longValue();
+            cancelledIds.add(orderId);
+            domainEventOutbox.orderCancelled(orderId, ((Number) row[1]).longValue(),
+                    Order.STATUS_PENDING, OrderCancelledEvent.REASON_HOLD_EXPIRED);
+        }
+        salesRollupWriter.pendingOrdersCancelled(cancelledIds);
+        return orderIds.size();
+    }
+
+    private void publishStockChanged(Product product, String reason) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
+        domainEventOutbox.stockChanged(product, reason);
+    }
+
+    private Map<Long, Product> toProductMap(List<Product> loaded, Map<Long, Integer> requested) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : loaded) {
+            products.put(product.getId(), product);
+        }
+        for (Long productId : requested.keySet()) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new RuntimeException("Товар с ID " + productId + " не найден");
+            }
+            if (!Boolean.TRUE.equals(product.getIsAvailable())) {
+                throw new RuntimeException("Товар \"" + product.getName() + "\" недоступен для заказа");
+            }
+        }
+        return products;
+    }
+
+    private Map<Long, Product> lockProducts(List<StockReservation> reservations) {
+        Set<Long> productIds = new TreeSet<>();
+        for (StockReservation reservation : reservations) {
+            productIds.add(reservation.getProduct().getId());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(productIds)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+}
@@ -1,5 +1,6 @@
 package com.jewelry.workshop.service.impl;
 
+import com.jewelry.workshop.domain.event.UserCredentialsChangedEvent;
 import com.jewelry.workshop.domain.model.dto.user.UserCreateDTO;
 import com.jewelry.workshop.domain.model.dto.user.UserDeleteResponseDTO;
 import com.jewelry.workshop.domain.model.dto.user.UserResponseDTO;
@@ -11,18 +12,14 @@ import com.jewelry.workshop.domain.repository.ClientRepository;
 import com.jewelry.workshop.domain.repository.EmployeeRepository;
 import com.jewelry.workshop.domain.repository.UserRepository;
 import com.jewelry.workshop.service.interfaces.UserService;
-import com.jewelry.workshop.service.mapper.UserMapper;
 import com.jewelry.workshop.util.PasswordUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -30,27 +27,13 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final ClientRepository clientRepository;
     private final EmployeeRepository employeeRepository;
-    private final UserMapper userMapper;
     private final PasswordUtil passwordUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
     public Page<UserResponseDTO> getAllUsers(Pageable pageable) {
-        Page<User> users = userRepository.findAll(pageable);
-
-        List<UserResponseDTO> dtos = users.getContent().stream()
-                .map(user -> {
-                    Long clientId = clientRepository.findByUserId(user.getId())
-                            .map(Client::getId)
-                            .orElse(null);
-                    Long employeeId = employeeRepository.findByUserId(user.getId())
-                            .map(Employee::getId)
-                            .orElse(null);
-                    return userMapper.toDto(user, clientId, employeeId);
-                })
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(dtos, pageable, users.getTotalElements());
+        return userRepository.findResponsePage(pageable);
     }
 
     @Override
@@ -87,35 +70,19 @@ public class UserServiceImpl implements UserService {
             employeeRepository.save(employee);
         }
 
-        Long clientId = User.Role.CLIENT.equals(user.getRole()) ?
-                clientRepository.findByUserId(savedUser.getId()).map(Client::getId).orElse(null) : null;
-
-        Long employeeId = !User.Role.CLIENT.equals(user.getRole()) ?
-                employeeRepository.findByUserId(savedUser.getId()).map(Employee::getId).orElse(null) : null;
-
-        return userMapper.toDto(savedUser, clientId, employeeId);
+        return loadResponse(savedUser.getId());
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserResponseDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Пользователь с ID " + id + " не найден"));
-
-        Long clientId = null;
-        Long employeeId = null;
-
-        if (User.Role.CLIENT.equals(user.getRole())) {
-            clientId = clientRepository.findByUserId(user.getId())
-                    .map(Client::getId)
-                    .orElse(null);
-        } else {
-            employeeId = employeeRepository.findByUserId(user.getId())
-                    .map(Employee::getId)
-                    .orElse(null);
-        }
+        return loadResponse(id);
+    }
 
-        return userMapper.toDto(user, clientId, employeeId);
+    // Пользователь с id профилей одним запросом; после изменений в транзакции запрос видит их благодаря автосбросу
+    private UserResponseDTO loadResponse(Long id) {
+        return userRepository.findResponseById(id)
+                .orElseThrow(() -> new RuntimeException("Пользователь с ID " + id + " не найден"));
     }
 
 
@@ -137,6 +104,7 @@ public class UserServiceImpl implements UserService {
 
         User.Role newRole = User.Role.valueOf(dto.getRole());
         boolean roleChanged = !existingUser.getRole().equals(newRole);
+        String previousEmail = existingUser.getEmail();
 
         if (roleChanged) {
             if (existingUser.getRole() == User.Role.CLIENT) {
@@ -166,19 +134,9 @@ public class UserServiceImpl implements UserService {
         existingUser.setEnabled(dto.getEnabled() != null ? dto.getEnabled() : true);
 
         User savedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(savedUser.getId(), previousEmail));
 
-        Long clientId = null;
-        Long employeeId = null;
-
-        if (newRole == User.Role.CLIENT) {
-            clientId = clientRepository.findByUserId(savedUser.getId())
-                    .map(Client::getId).orElse(null);
-        } else {
-            employeeId = employeeRepository.findByUserId(savedUser.getId())
-                    .map(Employee::getId).orElse(null);
-        }
-
-        return userMapper.toDto(savedUser, clientId, employeeId);
+        return loadResponse(savedUser.getId());
     }
 
     @Override
@@ -193,6 +151,7 @@ public class UserServiceImpl implements UserService {
 
         user.setEnabled(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getId(), user.getEmail()));
 
         UserDeleteResponseDTO response = new UserDeleteResponseDTO();
         response.setMessage("Пользователь успешно деактивирован");
@@ -208,11 +167,7 @@ public class UserServiceImpl implements UserService {
         User.Role newRole = User.Role.valueOf(newRoleStr);
         if (user.getRole().equals(newRole)) {
             // Роль не изменилась
-            Long clientId = User.Role.CLIENT.equals(user.getRole()) ?
-                    clientRepository.findByUserId(user.getId()).map(Client::getId).orElse(null) : null;
-            Long employeeId = !User.Role.CLIENT.equals(user.getRole()) ?
-                    employeeRepository.findByUserId(user.getId()).map(Employee::getId).orElse(null) : null;
-            return userMapper.toDto(user, clientId, employeeId);
+            return loadResponse(user.getId());
         }
 
         // Сначала удаляем старый профиль
@@ -239,17 +194,8 @@ public class UserServiceImpl implements UserService {
 
         user.setRole(newRole);
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(savedUser.getId(), savedUser.getEmail()));
 
-        Long clientId = null;
-        Long employeeId = null;
-        if (newRole == User.Role.CLIENT) {
-            clientId = clientRepository.findByUserId(savedUser.getId())
-                    .map(Client::getId).orElse(null);
-        } else {
-            employeeId = employeeRepository.findByUserId(savedUser.getId())
-                    .map(Employee::getId).orElse(null);
-        }
-
-        return userMapper.toDto(savedUser, clientId, employeeId);
+        return loadResponse(savedUser.getId());
     }
 }
\ No newline at end of file
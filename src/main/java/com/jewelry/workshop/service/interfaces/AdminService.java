@@ -9,4 +9,5 @@ import java.util.Map;
 public interface AdminService {
     Map<String, Object> getSystemStats();
     Page<AuditLogDTO> getAuditLogs(Pageable pageable);
+    Map<String, Object> getCacheStats();
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.jewelry.workshop.service.interfaces;
+
+import com.jewelry.workshop.util.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface ExportService {
+    void exportOrders(Instant start, Instant end, String status, ExportFormat format, OutputStream out) throws IOException;
+    void exportProductSales(Instant start, Instant end, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,5 +1,6 @@
 package com.jewelry.workshop.service.interfaces;
 
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderCreateDTO;
 import com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO;
 import com.jewelry.workshop.domain.model.dto.report.DailyOrderStatsDTO;
@@ -11,12 +12,15 @@ import java.util.List;
 public interface OrderService {
     Page<OrderResponseDTO> getMyOrders(Long clientId, int page, int size);
     Page<OrderResponseDTO> getOrderHistory(Long clientId, int page, int size);
+    CursorPageDTO<OrderResponseDTO> getMyOrdersAfter(Long clientId, String cursor, int size);
+    CursorPageDTO<OrderResponseDTO> getOrderHistoryAfter(Long clientId, String cursor, int size);
 
     OrderResponseDTO createOrder(Long clientId, OrderCreateDTO dto);
     OrderResponseDTO getOrderById(Long orderId, Long clientId);
 
     void cancelOrder(Long orderId, Long clientId);
     Page<OrderResponseDTO> getAllOrders(Pageable pageable);
+    CursorPageDTO<OrderResponseDTO> getAllOrdersAfter(String cursor, int size);
 
     void changeStatus(Long orderId, String status, Long currentUserId);
     List<DailyOrderStatsDTO> getDailyOrderStats(Integer days);
@@ -1,9 +1,11 @@
 package com.jewelry.workshop.service.interfaces;
 
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
 import com.jewelry.workshop.domain.model.dto.product.*;
 
 public interface ProductService {
     ProductSearchResponseDTO searchProducts(String userRole, ProductSearchDTO criteria, int page, int size);
+    CursorPageDTO<ProductResponseDTO> searchProductsAfter(String userRole, ProductSearchDTO criteria, String cursor, int size);
     ProductResponseDTO getProductById(Long productId, String userRole);
 
     ProductResponseDTO createProduct(ProductCreateDTO dto);
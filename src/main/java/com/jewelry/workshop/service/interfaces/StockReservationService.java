@@ -0,0 +1,17 @@
+package com.jewelry.workshop.service.interfaces;
+
+import com.jewelry.workshop.domain.model.entity.Order;
+import com.jewelry.workshop.domain.model.entity.Product;
+
+import java.util.Map;
+
+public interface StockReservationService {
+    Map<Long, Product> lockAvailable(Map<Long, Integer> requested);
+    void placeHolds(Order order);
+
+    void pinHolds(Order order);
+    void settle(Order order);
+    void release(Order order);
+
+    int expireHolds(int batchSize);
+}
@@ -0,0 +1,54 @@
+package com.jewelry.workshop.service.inventory;
+
+import com.jewelry.workshop.domain.model.entity.Product;
+import com.jewelry.workshop.domain.repository.InventoryLeaseRepository;
+import com.jewelry.workshop.domain.repository.ProductRepository;
+import com.jewelry.workshop.domain.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Операции с арендой выполняются в отдельных коротких транзакциях, не удерживая блокировку изделия до конца заказа.
+// Вызывается только вне транзакции заказа (до неё или из планировщика)
+@Component
+@RequiredArgsConstructor
+class InventoryLeaseStore {
+
+    private final InventoryLeaseRepository leaseRepository;
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int lease(Long productId, String nodeId, int chunk, Instant expiresAt) {
+        List<Product> locked = productRepository.findAllByIdForUpdate(List.of(productId));
+        if (locked.isEmpty() || !Boolean.TRUE.equals(locked.get(0).getIsAvailable())) {
+            return 0;
+        }
+
+        long held = sumOf(reservationRepository.sumHeldByProductIds(List.of(productId)));
+        long leased = sumOf(leaseRepository.sumActiveByProductIds(List.of(productId), Instant.now()));
+        long available = locked.get(0).getInStock() - held - leased;
+
+        int granted = (int) Math.min(chunk, Math.max(available, 0));
+        if (granted > 0) {
+            leaseRepository.grant(productId, nodeId, granted, expiresAt);
+        }
+        return granted;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void shrink(Map<Long, Long> quantities, String nodeId) {
+        for (var entry : quantities.entrySet()) {
+            leaseRepository.shrink(entry.getKey(), nodeId, entry.getValue());
+        }
+    }
+
+    private long sumOf(List<Object[]> rows) {
+        return rows.isEmpty() ? 0 : ((Number) rows.get(0)[1]).longValue();
+    }
+}
@@ -0,0 +1,194 @@
+package com.jewelry.workshop.service.inventory;
+
+import com.jewelry.workshop.config.properties.InventoryEngineProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Резервирование ходовых изделий из арендованных у БД бюджетов без блокировки строки products.
+// Потреблённый и возвращённый бюджет списывается с аренды в БД асинхронно, чтобы вызовы изнутри
+// транзакции заказа не брали второе соединение из пула.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StripedInventoryEngine {
+
+    private final InventoryLeaseStore leaseStore;
+    private final InventoryEngineProperties properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingShrink = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Арендует недостающий бюджет до начала транзакции заказа: аренда берёт собственное соединение,
+    // и внутри внешней транзакции пул из-за неё мог бы исчерпаться на самом себе
+    public void topUp(Map<Long, Integer> requested) {
+        for (var entry : requested.entrySet()) {
+            StripedStockCounter counter = counters.computeIfAbsent(entry.getKey(), id -> new StripedStockCounter(stripes));
+            if (counter.isExpired() || counter.available() < entry.getValue()) {
+                lease(entry.getKey(), counter, entry.getValue());
+            }
+        }
+    }
+
+    // Либо резервирует все позиции из локального бюджета, либо ничего не удерживает. В БД не обращается
+    public boolean tryAcquire(Map<Long, Integer> requested) {
+        Map<Long, Integer> acquired = new HashMap<>();
+        for (var entry : requested.entrySet()) {
+            if (!acquireOne(entry.getKey(), entry.getValue())) {
+                giveBack(acquired);
+                return false;
+            }
+            acquired.put(entry.getKey(), entry.getValue());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        markConsumed(acquired);
+                    } else {
+                        giveBack(acquired);
+                    }
+                }
+            });
+        } else {
+            markConsumed(acquired);
+        }
+        return true;
+    }
+
+    // Возвращает неиспользованный бюджет в общий остаток (при откате на путь через БД или смене остатка)
+    public void returnBudget(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            // Счётчик остаётся в карте: другие потоки могут держать ссылку на него и вернуть в него бюджет
+            StripedStockCounter counter = counters.get(productId);
+            if (counter != null) {
+                long leftover;
+                synchronized (counter) {
+                    leftover = counter.drain();
+                }
+                if (leftover > 0) {
+                    scheduleShrink(productId, leftover);
+                }
+            }
+        }
+    }
+
+    // Бюджет этого узла, который уже освобождён, но ещё не списан с аренды в БД.
+    // Читать после суммы аренд: сброс счётчика предшествует списанию, так что остаток не завышается
+    public Map<Long, Long> pendingShrink(Collection<Long> productIds) {
+        Map<Long, Long> pending = new HashMap<>();
+        for (Long productId : productIds) {
+            LongAdder adder = pendingShrink.get(productId);
+            if (adder != null) {
+                pending.put(productId, adder.sum());
+            }
+        }
+        return pending;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.engine.flush-interval:1000}")
+    public void flushPendingShrink() {
+        if (pendingShrink.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        pendingShrink.forEach((productId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(productId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            leaseStore.shrink(deltas, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось списать бюджет остатков: {}", e.getMessage());
+            deltas.forEach(this::scheduleShrink);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+        returnBudget(new ArrayList<>(counters.keySet()));
+        flushPendingShrink();
+    }
+
+    private boolean acquireOne(Long productId, int quantity) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        if (counter.tryAcquire(quantity)) {
+            return true;
+        }
+        synchronized (counter) {
+            return counter.tryAcquireCombined(quantity);
+        }
+    }
+
+    // Аренду для одного изделия запрашивает только один поток, остальные ждут её результата
+    private void lease(Long productId, StripedStockCounter counter, int quantity) {
+        synchronized (counter) {
+            if (!counter.isExpired() && counter.available() >= quantity) {
+                return;
+            }
+            if (counter.isExpired()) {
+                long leftover = counter.drain();
+                if (leftover > 0) {
+                    leaseStore.shrink(Map.of(productId, leftover), nodeId);
+                }
+            }
+
+            long ttlMillis = properties.getLeaseTtl().toMillis();
+            Instant expiresAt = Instant.now().plusMillis(ttlMillis);
+            int granted = leaseStore.lease(productId, nodeId, Math.max(properties.getLeaseChunk(), quantity), expiresAt);
+            if (granted == 0) {
+                return;
+            }
+            // Локальный бюджет гаснет раньше аренды в БД, чтобы не пережить её из-за расхождения часов
+            counter.extendUntil(expiresAt.toEpochMilli() - ttlMillis / 5);
+            counter.add(granted);
+        }
+    }
+
+    private void giveBack(Map<Long, Integer> acquired) {
+        acquired.forEach((productId, quantity) -> {
+            StripedStockCounter counter = counters.get(productId);
+            if (counter != null) {
+                counter.add(quantity);
+            } else {
+                scheduleShrink(productId, quantity);
+            }
+        });
+    }
+
+    private void markConsumed(Map<Long, Integer> acquired) {
+        acquired.forEach(this::scheduleShrink);
+    }
+
+    private void scheduleShrink(Long productId, long quantity) {
+        pendingShrink.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+    }
+}
@@ -0,0 +1,97 @@
+package com.jewelry.workshop.service.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Бюджет остатка одного изделия, разнесённый по ячейкам, чтобы потоки не конкурировали за один CAS
+class StripedStockCounter {
+
+    // 8 long = 64 байта: соседние ячейки не попадают в одну кэш-линию
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private volatile long deadlineMillis;
+
+    StripedStockCounter(int stripes) {
+        this.cells = new AtomicLongArray(stripes * PAD);
+        this.mask = stripes - 1;
+    }
+
+    boolean tryAcquire(int quantity) {
+        if (isExpired()) {
+            return false;
+        }
+        int start = probe();
+        for (int i = 0; i <= mask; i++) {
+            int index = ((start + i) & mask) * PAD;
+            long value;
+            while ((value = cells.get(index)) >= quantity) {
+                if (cells.compareAndSet(index, value, value - quantity)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Вызывается под блокировкой изделия: бюджет разнесён по ячейкам, и ни одна из них может
+    // не вмещать всё количество, хотя в сумме его хватает
+    boolean tryAcquireCombined(int quantity) {
+        if (tryAcquire(quantity)) {
+            return true;
+        }
+        if (isExpired()) {
+            return false;
+        }
+        long total = drain();
+        if (total >= quantity) {
+            add(total - quantity);
+            return true;
+        }
+        add(total);
+        return false;
+    }
+
+    long available() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.get(i * PAD);
+        }
+        return total;
+    }
+
+    void add(long quantity) {
+        int stripes = mask + 1;
+        if (quantity >= stripes) {
+            long share = quantity / stripes;
+            for (int i = 0; i < stripes; i++) {
+                cells.addAndGet(i * PAD, share);
+            }
+            quantity -= share * stripes;
+        }
+        if (quantity > 0) {
+            cells.addAndGet((probe() & mask) * PAD, quantity);
+        }
+    }
+
+    long drain() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.getAndSet(i * PAD, 0);
+        }
+        return total;
+    }
+
+    void extendUntil(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    boolean isExpired() {
+        return System.currentTimeMillis() >= deadlineMillis;
+    }
+
+    private static int probe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
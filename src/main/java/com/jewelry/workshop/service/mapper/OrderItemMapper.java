@@ -2,6 +2,7 @@ package com.jewelry.workshop.service.mapper;
 
 import com.jewelry.workshop.domain.model.dto.orderitem.OrderItemResponseDTO;
 import com.jewelry.workshop.domain.model.entity.OrderItem;
+import com.jewelry.workshop.domain.model.entity.Product;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -10,16 +11,17 @@ import java.math.BigDecimal;
 public class OrderItemMapper {
     public OrderItemResponseDTO toDto(OrderItem item) {
         if (item == null) return null;
-        return new OrderItemResponseDTO() {{
-            setId(item.getId());
-            setProductId(item.getProduct().getId());
-            setProductName(item.getProduct().getName());
-            setProductSku(item.getProduct().getSku());
-            setQuantity(item.getQuantity());
-            setUnitPrice(item.getUnitPrice());
-            setTotalPrice(item.getTotalPrice());
-            setUnitWeight(item.getProduct().getWeight());
-            setTotalWeight(item.getProduct().getWeight().multiply(BigDecimal.valueOf(item.getQuantity())));
-        }};
+        Product product = item.getProduct();
+        OrderItemResponseDTO dto = new OrderItemResponseDTO();
+        dto.setId(item.getId());
+        dto.setProductId(product.getId());
+        dto.setProductName(product.getName());
+        dto.setProductSku(product.getSku());
+        dto.setQuantity(item.getQuantity());
+        dto.setUnitPrice(item.getUnitPrice());
+        dto.setTotalPrice(item.getTotalPrice());
+        dto.setUnitWeight(product.getWeight());
+        dto.setTotalWeight(product.getWeight().multiply(BigDecimal.valueOf(item.getQuantity())));
+        return dto;
     }
 }
@@ -0,0 +1,80 @@
+package com.jewelry.workshop.service.report;
+
+import com.jewelry.workshop.config.properties.ReportProperties;
+import com.jewelry.workshop.presentation.exception.ReportTimeoutException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Выполняет независимые запросы отчёта параллельно, каждый в своей read-only транзакции
+// (и, значит, на своём соединении). Таймаут транзакции передаётся в запросы как statement timeout,
+// поэтому по истечении срока отчёта запросы отменяются и на стороне БД.
+// Пул не регистрируется бином, чтобы не подменять applicationTaskExecutor Spring Boot.
+@Component
+public class ReportQueryExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReportProperties properties;
+
+    public ReportQueryExecutor(PlatformTransactionManager transactionManager, ReportProperties properties) {
+        this.properties = properties;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getQueryThreads());
+        this.executor.setMaxPoolSize(properties.getQueryThreads());
+        this.executor.setQueueCapacity(properties.getQueueCapacity());
+        this.executor.setThreadNamePrefix("report-query-");
+        // При заполненной очереди запрос выполняется в вызывающем потоке: отчёт замедляется, но не падает
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.initialize();
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, properties.getTimeout().toSeconds()));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    // Ждёт все запросы отчёта не дольше общего таймаута; после возврата результаты доступны через join()
+    public void awaitAll(CompletableFuture<?>... queries) {
+        try {
+            CompletableFuture.allOf(queries).get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelAll(queries);
+            throw new ReportTimeoutException(
+                    "Отчёт не сформирован за " + properties.getTimeout().toSeconds() + " с, повторите запрос позже");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(queries);
+            throw new IllegalStateException("Формирование отчёта прервано", e);
+        } catch (ExecutionException e) {
+            cancelAll(queries);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Ошибка формирования отчёта", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void cancelAll(CompletableFuture<?>... queries) {
+        for (CompletableFuture<?> query : queries) {
+            query.cancel(true);
+        }
+    }
+}
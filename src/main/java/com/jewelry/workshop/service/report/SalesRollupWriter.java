@@ -0,0 +1,61 @@
+package com.jewelry.workshop.service.report;
+
+import com.jewelry.workshop.domain.model.entity.Order;
+import com.jewelry.workshop.domain.repository.ClientStatsRepository;
+import com.jewelry.workshop.domain.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+// Переносит изменения заказов в дневные агрегаты продаж и статистику клиентов в транзакции вызывающей операции
+@Component
+@RequiredArgsConstructor
+public class SalesRollupWriter {
+
+    private final SalesRollupRepository rollupRepository;
+    private final ClientStatsRepository clientStatsRepository;
+
+    // Статистика клиента учитывает и отменённые заказы, поэтому меняется только при оформлении
+    public void orderPlaced(Long orderId) {
+        applyOrders(List.of(orderId), 1, 0);
+        clientStatsRepository.recordOrders(List.of(orderId));
+    }
+
+    public void orderCompleted(Long orderId) {
+        flushPending();
+        rollupRepository.applyCompleted(List.of(orderId), 1);
+    }
+
+    public void orderCancelled(Long orderId, String previousStatus) {
+        applyOrders(List.of(orderId), -1, 1);
+        if (isCompleted(previousStatus)) {
+            rollupRepository.applyCompleted(List.of(orderId), -1);
+        }
+    }
+
+    // Пакетная отмена заказов, находившихся в PENDING
+    public void pendingOrdersCancelled(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        applyOrders(orderIds, -1, 1);
+    }
+
+    public static boolean isCompleted(String status) {
+        return Order.STATUS_COMPLETED.equals(status) || Order.STATUS_DELIVERED.equals(status);
+    }
+
+    private void applyOrders(Collection<Long> orderIds, int sign, int cancelled) {
+        flushPending();
+        rollupRepository.applyOrderTotals(orderIds, sign, cancelled);
+        rollupRepository.applyProductSales(orderIds, sign);
+        rollupRepository.applyClientSales(orderIds, sign);
+    }
+
+    // Агрегаты считаются SQL-запросом по orders/order_items: новые строки заказа должны быть уже записаны
+    private void flushPending() {
+        rollupRepository.flush();
+    }
+}
@@ -0,0 +1,43 @@
+package com.jewelry.workshop.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Непрозрачный курсор keyset-пагинации: поле сортировки, направление, id и значение поля последней записи
+public record KeysetCursor(String sortKey, boolean descending, Long id, String value) {
+
+    private static final String SEPARATOR = "|";
+    // Верхняя граница страницы ленты: запрос выбирает size + 1 строк и подгружает позиции каждой
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static int pageSize(int requested) {
+        if (requested <= 0) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным числом");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor, String expectedSortKey, boolean expectedDescending) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+        if (parts.length != 4 || !parts[2].matches("\\d+")) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+
+        boolean descending = "desc".equals(parts[1]);
+        if (!expectedSortKey.equals(parts[0]) || descending != expectedDescending) {
+            throw new IllegalArgumentException("Курсор не соответствует параметрам сортировки");
+        }
+        return new KeysetCursor(parts[0], descending, Long.parseLong(parts[2]), parts[3]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.jewelry.workshop.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jewelry.workshop.config.properties.RateLimitProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Локальный слой перед RateLimitService. Очевидные случаи решаются без Redis:
+// ключ, которому Redis уже отказал, блокируется до освобождения окна, а для крупных лимитов
+// узел арендует пачку попыток и расходует её локально. Вблизи лимита — проверка в Redis на каждый запрос.
+@Component
+public class LocalRateLimiter {
+
+    private final RateLimitService rateLimitService;
+    private final RateLimitProperties properties;
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimiter(RateLimitService rateLimitService, RateLimitProperties properties) {
+        this.rateLimitService = rateLimitService;
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    public boolean tryAcquire(String key, int maxAttempts, int windowMinutes) {
+        if (!properties.isEnabled()) {
+            return rateLimitService.isAllowed(key, maxAttempts, windowMinutes);
+        }
+
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.get(key, k -> new Bucket());
+        if (now < bucket.blockedUntil) {
+            return false;
+        }
+        if (now < bucket.leaseExpiresAt && bucket.tryTake()) {
+            return true;
+        }
+
+        int chunk = maxAttempts >= properties.getMinLimitForLease()
+                ? Math.max(1, (int) (maxAttempts * properties.getLeaseFraction()))
+                : 1;
+        RateLimitService.Grant grant = rateLimitService.acquire(key, chunk, maxAttempts, windowMinutes);
+        if (grant.granted() == 0) {
+            bucket.blockedUntil = now + grant.retryAfterMillis();
+            return false;
+        }
+        if (grant.granted() > 1) {
+            // Одна попытка уходит текущему запросу, остальные — в локальный запас
+            bucket.refill(grant.granted() - 1, now, now + properties.getLeaseTtl().toMillis());
+        }
+        return true;
+    }
+
+    private static final class Bucket {
+        private final AtomicInteger permits = new AtomicInteger();
+        private volatile long leaseExpiresAt;
+        private volatile long blockedUntil;
+
+        boolean tryTake() {
+            int current;
+            do {
+                current = permits.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!permits.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        // Параллельные аренды складываются: перезапись теряла бы попытки, уже списанные в Redis.
+        // Запас истёкшей аренды не переносится — его попытки могли уже выйти из окна
+        void refill(int amount, long now, long expiresAt) {
+            if (now >= leaseExpiresAt) {
+                permits.set(0);
+            }
+            permits.addAndGet(amount);
+            leaseExpiresAt = expiresAt;
+        }
+    }
+}
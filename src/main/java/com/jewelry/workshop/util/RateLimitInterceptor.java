@@ -8,11 +8,18 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Component
 @RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final RateLimitService rateLimitService;
+    private final LocalRateLimiter rateLimiter;
+    // Аннотация метода-обработчика не меняется, поэтому ищется один раз
+    private final Map<Method, Optional<RateLimit>> annotations = new ConcurrentHashMap<>();
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -21,7 +28,8 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         }
 
         HandlerMethod handlerMethod = (HandlerMethod) handler;
-        RateLimit rateLimit = handlerMethod.getMethodAnnotation(RateLimit.class);
+        RateLimit rateLimit = annotations.computeIfAbsent(handlerMethod.getMethod(),
+                method -> Optional.ofNullable(handlerMethod.getMethodAnnotation(RateLimit.class))).orElse(null);
 
         if(rateLimit == null) {
             return true;
@@ -30,7 +38,7 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         String ip = getClientIpAddress(request);
         String key = rateLimit.keyPrefix() + ":" + ip;
 
-        if (!rateLimitService.isAllowed(key, rateLimit.maxAttempts(), rateLimit.windowMinutes())) {
+        if (!rateLimiter.tryAcquire(key, rateLimit.maxAttempts(), rateLimit.windowMinutes())) {
             response.setStatus(429);
             response.getWriter().write("Слишком много запросов. Попробуйте позже.");
             return false;
@@ -2,44 +2,70 @@ package com.jewelry.workshop.util;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 public class RateLimitService {
 
+    // Скользящее окно на отсортированном множестве: чистка устаревших попыток, проверка и запись
+    // выполняются атомарно на стороне Redis за один EVALSHA. Время берётся с сервера Redis,
+    // чтобы расхождение часов узлов не влияло на окно.
+    // Возвращает {выдано попыток, через сколько мс освободится следующая}.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SLIDING_WINDOW = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            local granted = math.min(tonumber(ARGV[3]), tonumber(ARGV[2]) - redis.call('ZCARD', KEYS[1]))
+            if granted <= 0 then
+                local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+                local retry = window
+                if oldest[2] then
+                    retry = tonumber(oldest[2]) + window - now
+                end
+                return {0, retry}
+            end
+            for i = 1, granted do
+                redis.call('ZADD', KEYS[1], now, ARGV[4] .. ':' .. i)
+            end
+            redis.call('PEXPIRE', KEYS[1], window)
+            return {granted, 0}
+            """, List.class);
+
+    private static final String NODE = UUID.randomUUID().toString();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private final StringRedisTemplate redisTemplate;
 
     public boolean isAllowed(String key, int maxAttempts, int windowMinutes) {
-        String attemptsKey = "rate_limit:" + key;
-        String timeKey = "rate_limit_time:" + key;
-
-        String attemptsStr = redisTemplate.opsForValue().get(attemptsKey);
-        String timeStr = redisTemplate.opsForValue().get(timeKey);
-
-        long attempts = attemptsStr != null ? Long.parseLong(attemptsStr) : 0;
-        long now = System.currentTimeMillis();
-
-        if (timeStr != null) {
-            long time = Long.parseLong(timeStr);
-            if (now - time > Duration.ofMinutes(windowMinutes).toMillis()) {
-                redisTemplate.delete(attemptsKey);
-                redisTemplate.delete(timeKey);
-                attempts = 0;
-            }
-        }
-
-        if (attempts >= maxAttempts) {
-            return false;
-        }
+        return acquire(key, 1, maxAttempts, windowMinutes).granted() == 1;
+    }
 
-        redisTemplate.opsForValue().set(attemptsKey, String.valueOf(attempts + 1), Duration.ofMinutes(windowMinutes));
-        if (attempts == 0) {
-            redisTemplate.opsForValue().set(timeKey, String.valueOf(now), Duration.ofMinutes(windowMinutes));
+    // Забирает до requested попыток из окна; остаток сверх лимита не выдаётся
+    public Grant acquire(String key, int requested, int maxAttempts, int windowMinutes) {
+        List<?> result = redisTemplate.execute(
+                SLIDING_WINDOW,
+                List.of("rate_limit_window:" + key),
+                String.valueOf(Duration.ofMinutes(windowMinutes).toMillis()),
+                String.valueOf(maxAttempts),
+                String.valueOf(requested),
+                NODE + ":" + SEQUENCE.incrementAndGet()
+        );
+        if (result == null || result.size() < 2) {
+            return new Grant(0, 0);
         }
+        return new Grant(((Number) result.get(0)).intValue(), ((Number) result.get(1)).longValue());
+    }
 
-        return true;
+    public record Grant(int granted, long retryAfterMillis) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+-- Дневные агрегаты продаж для отчётов. День — дата оформления заказа по UTC.
+-- Суммы и количества заказов учитывают только неотменённые заказы; обновляются
+-- приращениями при оформлении, отмене и завершении заказа.
+
+-- Итоги дня разбиты на 16 полос по id заказа, чтобы одновременные заказы не ждали одну строку
+CREATE TABLE IF NOT EXISTS sales_daily (
+    id BIGSERIAL PRIMARY KEY,
+    day DATE NOT NULL,
+    stripe SMALLINT NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    cancelled_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    discount_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    final_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    completed_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (day, stripe)
+);
+COMMENT ON TABLE sales_daily IS 'Дневные итоги продаж';
+
+CREATE TABLE IF NOT EXISTS sales_daily_product (
+    id BIGSERIAL PRIMARY KEY,
+    day DATE NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    UNIQUE (day, product_id)
+);
+COMMENT ON TABLE sales_daily_product IS 'Дневные продажи по изделиям';
+
+CREATE TABLE IF NOT EXISTS sales_daily_client (
+    id BIGSERIAL PRIMARY KEY,
+    day DATE NOT NULL,
+    client_id BIGINT NOT NULL REFERENCES clients(id) ON DELETE CASCADE,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    final_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    UNIQUE (day, client_id)
+);
+COMMENT ON TABLE sales_daily_client IS 'Дневные покупки по клиентам';
+
+-- Заполнение по уже оформленным заказам
+INSERT INTO sales_daily (day, stripe, order_count, cancelled_count, completed_count,
+                         total_amount, discount_amount, final_amount, completed_amount)
+SELECT (COALESCE(order_datetime, created_at) AT TIME ZONE 'UTC')::date,
+       (id % 16)::smallint,
+       COUNT(*) FILTER (WHERE status IS DISTINCT FROM 'CANCELLED'),
+       COUNT(*) FILTER (WHERE status = 'CANCELLED'),
+       COUNT(*) FILTER (WHERE status IN ('COMPLETED', 'DELIVERED')),
+       COALESCE(SUM(total_amount) FILTER (WHERE status IS DISTINCT FROM 'CANCELLED'), 0),
+       COALESCE(SUM(discount_amount) FILTER (WHERE status IS DISTINCT FROM 'CANCELLED'), 0),
+       COALESCE(SUM(final_amount) FILTER (WHERE status IS DISTINCT FROM 'CANCELLED'), 0),
+       COALESCE(SUM(final_amount) FILTER (WHERE status IN ('COMPLETED', 'DELIVERED')), 0)
+FROM orders
+GROUP BY 1, 2;
+
+INSERT INTO sales_daily_product (day, product_id, order_count, quantity, revenue)
+SELECT (COALESCE(o.order_datetime, o.created_at) AT TIME ZONE 'UTC')::date, oi.product_id,
+       COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.total_price)
+FROM orders o
+JOIN order_items oi ON oi.order_id = o.id
+WHERE o.status IS DISTINCT FROM 'CANCELLED'
+GROUP BY 1, 2;
+
+INSERT INTO sales_daily_client (day, client_id, order_count, final_amount)
+SELECT (COALESCE(order_datetime, created_at) AT TIME ZONE 'UTC')::date, client_id,
+       COUNT(*), COALESCE(SUM(final_amount), 0)
+FROM orders
+WHERE status IS DISTINCT FROM 'CANCELLED'
+GROUP BY 1, 2;
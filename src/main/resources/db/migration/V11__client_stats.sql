@@ -0,0 +1,17 @@
+-- Накопительная статистика клиента для профиля: число заказов, сумма заказов и время последнего заказа.
+-- Как и прежние агрегаты профиля, учитывает все заказы клиента, включая отменённые.
+-- Заказы не удаляются и не меняют суммы после оформления, поэтому строка только растёт при оформлении заказа.
+CREATE TABLE IF NOT EXISTS client_stats (
+    client_id BIGINT PRIMARY KEY REFERENCES clients(id) ON DELETE CASCADE,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_spent DECIMAL(14,2) NOT NULL DEFAULT 0,
+    last_order_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+COMMENT ON TABLE client_stats IS 'Накопительная статистика заказов клиента';
+
+-- Заполнение по уже оформленным заказам
+INSERT INTO client_stats (client_id, order_count, total_spent, last_order_at)
+SELECT client_id, COUNT(*), COALESCE(SUM(total_amount), 0), MAX(order_datetime)
+FROM orders
+GROUP BY client_id;
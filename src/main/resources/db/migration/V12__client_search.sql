@@ -0,0 +1,15 @@
+-- Поиск клиентов (ClientRepositoryCustomImpl.searchClients)
+
+-- Подстрочный поиск по фамилии и имени: LOWER(...) LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_clients_last_name_trgm
+    ON clients USING GIN (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clients_first_name_trgm
+    ON clients USING GIN (lower(first_name) gin_trgm_ops);
+
+-- Подстрочный поиск по телефону
+CREATE INDEX IF NOT EXISTS idx_clients_phone_trgm
+    ON clients USING GIN (phone gin_trgm_ops);
+
+-- Фильтр minOrders и сортировка по числу заказов
+CREATE INDEX IF NOT EXISTS idx_client_stats_order_count
+    ON client_stats (order_count DESC, client_id);
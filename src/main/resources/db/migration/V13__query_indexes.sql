@@ -0,0 +1,56 @@
+-- Индексы под запросы репозиториев. Индексы лент заказов и остатков
+-- (idx_orders_client_datetime, idx_orders_datetime, idx_products_in_stock) создаёт V6
+
+-- findOrdersByCriteria с фильтром по статусу
+CREATE INDEX IF NOT EXISTS idx_orders_status_datetime
+    ON orders (status, order_datetime DESC);
+
+-- findByStatus('PENDING') в статистике администратора: активных заказов мало относительно всей истории
+CREATE INDEX IF NOT EXISTS idx_orders_pending
+    ON orders (order_datetime) WHERE status = 'PENDING';
+
+-- Позиции заказа: загрузка Order.orderItems и позиций страницы заказов
+CREATE INDEX IF NOT EXISTS idx_order_items_order
+    ON order_items (order_id);
+
+-- JOIN по изделию в getProductSalesStatistics
+CREATE INDEX IF NOT EXISTS idx_order_items_product
+    ON order_items (product_id, created_at) INCLUDE (quantity, total_price);
+
+-- findBestSellingProductsInPeriod: позиции только добавляются, created_at коррелирует с физическим порядком
+CREATE INDEX IF NOT EXISTS brin_order_items_created_at
+    ON order_items USING BRIN (created_at) WITH (pages_per_range = 32);
+
+-- searchProducts: фильтр по типу и диапазону цены
+CREATE INDEX IF NOT EXISTS idx_products_type_price
+    ON products (type, price);
+
+-- searchProducts для роли CLIENT (только доступные изделия) с сортировкой по цене
+CREATE INDEX IF NOT EXISTS idx_products_available_price
+    ON products (price) WHERE is_available = TRUE;
+
+-- isMaterialInUse (UNIQUE(product_id, material_id) не покрывает поиск по material_id)
+CREATE INDEX IF NOT EXISTS idx_product_materials_material
+    ON product_materials (material_id);
+
+-- Клиенты: findByPhone, countNewClientsSince, countPermanentClients, сортировка по имени в searchClients
+CREATE INDEX IF NOT EXISTS idx_clients_phone
+    ON clients (phone);
+CREATE INDEX IF NOT EXISTS idx_clients_created_at
+    ON clients (created_at);
+CREATE INDEX IF NOT EXISTS idx_clients_permanent
+    ON clients (id) WHERE is_permanent = TRUE;
+CREATE INDEX IF NOT EXISTS idx_clients_last_name
+    ON clients (last_name, first_name);
+
+-- Пользователи: findByVerificationToken, findByPasswordResetToken (токены заданы у единиц пользователей)
+CREATE INDEX IF NOT EXISTS idx_users_verification_token
+    ON users (verification_token) WHERE verification_token IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_password_reset_token
+    ON users (password_reset_token) WHERE password_reset_token IS NOT NULL;
+
+-- Аудит: журнал только растёт
+CREATE INDEX IF NOT EXISTS idx_audit_log_user
+    ON audit_log (user_id);
+CREATE INDEX IF NOT EXISTS brin_audit_log_created_at
+    ON audit_log USING BRIN (created_at);
@@ -0,0 +1,8 @@
+-- Продажи изделия за день разбиты на 16 полос по id заказа, как итоги дня в sales_daily:
+-- одновременные заказы ходового изделия не ждут одну строку (day, product_id).
+-- Уже накопленные строки остаются в полосе 0; чтения суммируют полосы.
+ALTER TABLE sales_daily_product ADD COLUMN IF NOT EXISTS stripe SMALLINT NOT NULL DEFAULT 0;
+
+ALTER TABLE sales_daily_product DROP CONSTRAINT IF EXISTS sales_daily_product_day_product_id_key;
+ALTER TABLE sales_daily_product
+    ADD CONSTRAINT sales_daily_product_day_product_stripe_key UNIQUE (day, product_id, stripe);
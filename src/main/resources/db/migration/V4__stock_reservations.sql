@@ -0,0 +1,24 @@
+-- Последовательность с шагом 50: Hibernate выделяет id пачками и вставляет резервы одним JDBC-батчем
+CREATE SEQUENCE IF NOT EXISTS stock_reservations_id_seq START 1 INCREMENT 50;
+
+-- Резервы остатков под заказы
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id BIGINT PRIMARY KEY DEFAULT nextval('stock_reservations_id_seq'),
+    order_id BIGINT NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    status VARCHAR(10) NOT NULL DEFAULT 'HELD' CHECK (status IN ('HELD', 'RELEASED', 'SETTLED')),
+    expires_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (order_id, product_id)
+);
+COMMENT ON TABLE stock_reservations IS 'Резервы остатков изделий под незавершённые заказы';
+
+-- Сумма активных резервов по изделию при оформлении заказа
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_held_product
+    ON stock_reservations (product_id) INCLUDE (quantity) WHERE status = 'HELD';
+
+-- Поиск просроченных резервов фоновой задачей
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_held_expires
+    ON stock_reservations (expires_at) WHERE status = 'HELD' AND expires_at IS NOT NULL;
@@ -0,0 +1,11 @@
+-- Бюджеты остатков, выданные узлам приложения для резервирования в памяти
+CREATE TABLE IF NOT EXISTS inventory_leases (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    node_id VARCHAR(64) NOT NULL,
+    quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (product_id, node_id)
+);
+COMMENT ON TABLE inventory_leases IS 'Бюджеты остатков, арендованные узлами приложения';
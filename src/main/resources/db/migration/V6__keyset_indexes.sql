@@ -0,0 +1,24 @@
+-- Индексы под keyset-пагинацию: id в конце ключа даёт однозначный порядок и позволяет
+-- начинать просмотр сразу с позиции курсора
+
+-- Ленты заказов клиента (/orders/my/scroll, /orders/my/history/scroll)
+CREATE INDEX IF NOT EXISTS idx_orders_client_datetime
+    ON orders (client_id, order_datetime DESC, id DESC) INCLUDE (status, total_amount, final_amount);
+
+-- Лента всех заказов (/orders/scroll), findOrdersByCriteria, getDailyRevenue, getClientStatisticsInPeriod
+CREATE INDEX IF NOT EXISTS idx_orders_datetime
+    ON orders (order_datetime DESC, id DESC) INCLUDE (client_id, final_amount, discount_amount);
+
+-- Лента каталога (/products/scroll) по каждому полю сортировки; обратный порядок — обратный просмотр индекса
+CREATE INDEX IF NOT EXISTS idx_products_name_id
+    ON products (name, id);
+CREATE INDEX IF NOT EXISTS idx_products_price_id
+    ON products (price, id);
+CREATE INDEX IF NOT EXISTS idx_products_weight_id
+    ON products (weight, id);
+CREATE INDEX IF NOT EXISTS idx_products_created_at_id
+    ON products (created_at, id);
+
+-- findLowStockProducts, findLowStockPage
+CREATE INDEX IF NOT EXISTS idx_products_in_stock
+    ON products (in_stock, id);
@@ -0,0 +1,23 @@
+-- Полнотекстовый и нечёткий поиск по каталогу
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Название важнее артикула, артикул важнее описания; 'simple' для артикула, чтобы не резать его стеммером
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(sku, '')), 'B') ||
+            setweight(to_tsvector('russian', coalesce(description, '')), 'C')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector
+    ON products USING GIN (search_vector);
+
+-- Триграммы: опечатки (<%, %) и подстроки (ILIKE '%...%')
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+    ON products USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_sku_trgm
+    ON products USING GIN (sku gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_description_trgm
+    ON products USING GIN (description gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- Доменные события заказов и остатков: пишутся в транзакции бизнес-операции, публикуются в Kafka фоновым ретранслятором
+
+CREATE TABLE IF NOT EXISTS domain_event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    event_key VARCHAR(100) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP WITH TIME ZONE
+);
+COMMENT ON TABLE domain_event_outbox IS 'Очередь доменных событий для публикации в Kafka';
+
+-- Выборка ретранслятора в порядке записи: неопубликованных событий мало относительно истории
+CREATE INDEX IF NOT EXISTS idx_domain_event_outbox_unpublished
+    ON domain_event_outbox (id) WHERE published_at IS NULL;
+
+-- Очистка опубликованных событий старше срока хранения
+CREATE INDEX IF NOT EXISTS idx_domain_event_outbox_published_at
+    ON domain_event_outbox (published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,122 @@
+package com.jewelry.workshop.domain.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Проверяет, что запросы горячих путей по-прежнему обслуживаются индексами из миграций
+@Testcontainers
+class QueryPlanTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrateAndFill() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (username, email, password_hash, role, enabled, verification_token)
+                    SELECT 'user' || g, 'user' || g || '@test.local', 'x', 'CLIENT', TRUE,
+                           CASE WHEN g % 100 = 0 THEN 'token' || g END
+                    FROM generate_series(1, 500) g
+                    """);
+            statement.execute("""
+                    INSERT INTO clients (user_id, first_name, last_name, phone)
+                    SELECT id, 'Имя' || id, 'Фамилия' || id, '+7900' || lpad(id::text, 7, '0') FROM users
+                    """);
+            statement.execute("""
+                    INSERT INTO products (name, sku, weight, price, type, in_stock, is_available)
+                    SELECT 'Изделие ' || g, 'SKU-' || g, 1.5, 100 + g, 'RING', g % 50, TRUE
+                    FROM generate_series(1, 2000) g
+                    """);
+            statement.execute("""
+                    INSERT INTO orders (client_id, status, total_amount, discount_amount, final_amount, order_datetime)
+                    SELECT c.id, CASE WHEN g % 100 = 0 THEN 'PENDING' ELSE 'COMPLETED' END, 1000, 0, 1000,
+                           now() - make_interval(mins => g)
+                    FROM generate_series(1, 50000) g
+                    JOIN clients c ON c.id = (SELECT min(id) FROM clients) + g % 500
+                    """);
+            statement.execute("""
+                    INSERT INTO order_items (order_id, product_id, quantity, unit_price, total_price)
+                    SELECT o.id, (SELECT min(id) FROM products) + o.id % 2000, 1, 1000, 1000 FROM orders o
+                    """);
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void allOrdersFeedReadsDatetimeIndexWithoutSort() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM orders
+                WHERE order_datetime <= now() AND (order_datetime < now() OR id < 9223372036854775807)
+                ORDER BY order_datetime DESC, id DESC LIMIT 21
+                """);
+        assertTrue(plan.contains("idx_orders_datetime"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void clientOrdersFeedReadsClientIndexWithoutSort() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM orders
+                WHERE client_id = (SELECT min(id) FROM clients)
+                  AND order_datetime <= now() AND (order_datetime < now() OR id < 9223372036854775807)
+                ORDER BY order_datetime DESC, id DESC LIMIT 21
+                """);
+        assertTrue(plan.contains("idx_orders_client_datetime"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void orderItemsOfPageUseOrderIndex() throws SQLException {
+        String plan = explain("SELECT * FROM order_items WHERE order_id IN (1, 2, 3, 4, 5)");
+        assertTrue(plan.contains("idx_order_items_order"), plan);
+    }
+
+    @Test
+    void lowStockPageReadsStockIndexWithoutSort() throws SQLException {
+        String plan = explain("SELECT * FROM products WHERE in_stock <= 1 ORDER BY in_stock, id LIMIT 20");
+        assertTrue(plan.contains("idx_products_in_stock"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void verificationTokenLookupUsesPartialIndex() throws SQLException {
+        String plan = explain("SELECT * FROM users WHERE verification_token = 'token100'");
+        assertTrue(plan.contains("idx_users_verification_token"), plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,111 @@
+package com.jewelry.workshop.infrastructure.messaging;
+
+import com.jewelry.workshop.config.properties.DomainEventProperties;
+import com.jewelry.workshop.domain.model.entity.DomainEventOutboxMessage;
+import com.jewelry.workshop.domain.repository.DomainEventOutboxRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+// Ретранслятор против встроенного брокера: события одного ключа приходят в порядке outbox,
+// а без advisory-блокировки узел ничего не публикует
+@EmbeddedKafka(partitions = 3, topics = DomainEventRelayTest.TOPIC)
+class DomainEventRelayTest {
+
+    static final String TOPIC = "jewelry.orders.test";
+    private static final int KEYS = 5;
+    private static final int EVENTS_PER_KEY = 20;
+
+    @Test
+    void publishesEventsOfEachKeyInOutboxOrder(EmbeddedKafkaBroker broker) {
+        List<DomainEventOutboxMessage> outbox = new ArrayList<>();
+        for (int i = 0; i < KEYS * EVENTS_PER_KEY; i++) {
+            DomainEventOutboxMessage message = new DomainEventOutboxMessage(
+                    TOPIC, "order-" + (i % KEYS), "OrderStatusChanged", String.valueOf(i));
+            message.setId((long) i + 1);
+            outbox.add(message);
+        }
+        DomainEventOutboxRepository repository = mock(DomainEventOutboxRepository.class);
+        when(repository.tryLockRelay(DomainEventRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        when(repository.lockUnpublished(anyInt())).thenReturn(outbox, List.of());
+
+        relay(broker, repository).relay();
+
+        assertTrue(outbox.stream().allMatch(message -> message.getPublishedAt() != null));
+
+        Map<String, List<Integer>> received = new HashMap<>();
+        try (Consumer<String, String> consumer = consumer(broker)) {
+            broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            int total = 0;
+            while (total < outbox.size()) {
+                for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10))) {
+                    received.computeIfAbsent(record.key(), k -> new ArrayList<>()).add(Integer.parseInt(record.value()));
+                    assertNotNull(record.headers().lastHeader(DomainEventOutbox.HEADER_EVENT_ID));
+                    assertEquals("OrderStatusChanged", new String(
+                            record.headers().lastHeader(DomainEventOutbox.HEADER_EVENT_TYPE).value(), StandardCharsets.UTF_8));
+                    total++;
+                }
+            }
+        }
+
+        assertEquals(KEYS, received.size());
+        received.forEach((key, values) -> {
+            assertEquals(EVENTS_PER_KEY, values.size());
+            List<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            assertEquals(sorted, values, "Нарушен порядок событий ключа " + key);
+        });
+    }
+
+    @Test
+    void skipsRelayWhenAnotherNodeHoldsTheLock(EmbeddedKafkaBroker broker) {
+        DomainEventOutboxRepository repository = mock(DomainEventOutboxRepository.class);
+        when(repository.tryLockRelay(DomainEventRelay.RELAY_LOCK_KEY)).thenReturn(false);
+
+        relay(broker, repository).relay();
+
+        verify(repository, never()).lockUnpublished(anyInt());
+    }
+
+    private static DomainEventRelay relay(EmbeddedKafkaBroker broker, DomainEventOutboxRepository repository) {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put("key.serializer", StringSerializer.class);
+        producerProps.put("value.serializer", StringSerializer.class);
+        producerProps.put("enable.idempotence", true);
+        producerProps.put("max.in.flight.requests.per.connection", 5);
+        KafkaTemplate<String, String> kafkaTemplate =
+                new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps));
+
+        DomainEventProperties properties = new DomainEventProperties();
+        properties.setEnabled(true);
+        properties.setOrdersTopic(TOPIC);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new DomainEventRelay(repository, kafkaTemplate, properties, transactionTemplate);
+    }
+
+    private static Consumer<String, String> consumer(EmbeddedKafkaBroker broker) {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("relay-test", "false", broker);
+        consumerProps.put("auto.offset.reset", "earliest");
+        return new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+    }
+}
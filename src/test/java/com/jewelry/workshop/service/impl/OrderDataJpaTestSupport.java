@@ -0,0 +1,92 @@
+package com.jewelry.workshop.service.impl;
+
+import com.jewelry.workshop.infrastructure.messaging.DomainEventOutbox;
+import com.jewelry.workshop.service.interfaces.DiscountService;
+import com.jewelry.workshop.service.interfaces.StockReservationService;
+import com.jewelry.workshop.service.inventory.StripedInventoryEngine;
+import com.jewelry.workshop.service.mapper.ClientMapper;
+import com.jewelry.workshop.service.mapper.OrderItemMapper;
+import com.jewelry.workshop.service.mapper.OrderMapper;
+import com.jewelry.workshop.service.report.SalesRollupWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Общая основа тестов чтения заказов: PostgreSQL в контейнере со схемой из миграций Flyway,
+// настоящий OrderServiceImpl с мапперами и заглушки зависимостей, не участвующих в чтении.
+// Контейнер запускается один раз на все наследники и не останавливается между классами:
+// закешированный контекст Spring продолжает ссылаться на его адрес. Останавливает его Testcontainers при выходе.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderServiceImpl.class, OrderMapper.class, ClientMapper.class, OrderItemMapper.class})
+abstract class OrderDataJpaTestSupport {
+
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @MockBean
+    private DiscountService discountService;
+    @MockBean
+    private StockReservationService stockReservationService;
+    @MockBean
+    private DomainEventOutbox domainEventOutbox;
+    @MockBean
+    private SalesRollupWriter salesRollupWriter;
+    @MockBean
+    private StripedInventoryEngine inventoryEngine;
+
+    @Autowired
+    protected OrderServiceImpl orderService;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    // Заказы распределены по клиентам по кругу, в каждом itemsPerOrder позиций разных изделий
+    protected void fill(int clients, int products, int orders, int itemsPerOrder) {
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, password_hash, role, enabled)
+                SELECT 'client' || g, 'client' || g || '@test.local', 'x', 'CLIENT', TRUE
+                FROM generate_series(1, ?) g
+                """, clients);
+        jdbcTemplate.update("""
+                INSERT INTO clients (user_id, first_name, last_name, phone)
+                SELECT id, 'Имя', 'Фамилия' || id, '+7900000' || lpad(id::text, 4, '0') FROM users
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO products (name, sku, weight, price, type, in_stock, is_available)
+                SELECT 'Изделие ' || g, 'SKU-' || g, 2.5, 1000, 'RING', 10, TRUE
+                FROM generate_series(1, ?) g
+                """, products);
+        jdbcTemplate.update("""
+                INSERT INTO orders (client_id, status, total_amount, discount_amount, final_amount, order_datetime)
+                SELECT (SELECT min(id) FROM clients) + g % ?, 'PENDING', 1000 * ?, 0, 1000 * ?,
+                       now() - make_interval(mins => g)
+                FROM generate_series(1, ?) g
+                """, clients, itemsPerOrder, itemsPerOrder, orders);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (order_id, product_id, quantity, unit_price, total_price)
+                SELECT o.id, (SELECT min(id) FROM products) + (o.id + k) % ?, 1, 1000, 1000
+                FROM orders o CROSS JOIN generate_series(0, ? - 1) k
+                """, products, itemsPerOrder);
+    }
+
+    protected Long firstClientId() {
+        return jdbcTemplate.queryForObject("SELECT min(id) FROM clients", Long.class);
+    }
+}
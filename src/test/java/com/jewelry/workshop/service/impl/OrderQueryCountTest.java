@@ -0,0 +1,117 @@
+package com.jewelry.workshop.service.impl;
+
+import com.jewelry.workshop.domain.model.dto.common.CursorPageDTO;
+import com.jewelry.workshop.domain.model.dto.order.OrderResponseDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Число SQL-запросов на чтение заказов по статистике Hibernate: ленты и карточка заказа
+// не должны догружать клиентов, позиции и изделия по одному
+class OrderQueryCountTest extends OrderDataJpaTestSupport {
+
+    private static final int CLIENTS = 3;
+    private static final int ORDERS = 30;
+    private static final int PAGE_SIZE = 10;
+    // У каждого клиента 10 заказов: страница из 5 неполная по общему числу, COUNT выполняется
+    private static final int CLIENT_PAGE_SIZE = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        fill(CLIENTS, 5, ORDERS, 2);
+
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void orderFeedPageTakesTwoStatements() {
+        CursorPageDTO<OrderResponseDTO> page = orderService.getAllOrdersAfter(null, PAGE_SIZE);
+
+        assertEquals(PAGE_SIZE, page.getItems().size());
+        page.getItems().forEach(order -> {
+            assertNotNull(order.getClient().getEmail());
+            assertEquals(2, order.getItems().size());
+            order.getItems().forEach(item -> assertNotNull(item.getProductName()));
+        });
+        assertEquals(2, statistics.getPrepareStatementCount(), "страница заказов и позиции с изделиями");
+    }
+
+    @Test
+    void nextFeedPageTakesTwoStatements() {
+        String cursor = orderService.getAllOrdersAfter(null, PAGE_SIZE).getNextCursor();
+        entityManager.clear();
+        statistics.clear();
+
+        CursorPageDTO<OrderResponseDTO> page = orderService.getAllOrdersAfter(cursor, PAGE_SIZE);
+
+        assertFalse(page.getItems().isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderDetailsTakeOneStatement() {
+        Long orderId = jdbcTemplate.queryForObject("SELECT min(id) FROM orders", Long.class);
+
+        OrderResponseDTO order = orderService.getOrderById(orderId, null);
+
+        assertEquals(2, order.getItems().size());
+        assertNotNull(order.getClient().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void allOrdersPageTakesThreeStatements() {
+        Page<OrderResponseDTO> page = orderService.getAllOrders(PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(ORDERS, page.getTotalElements());
+        assertPageItemsLoaded(page.getContent(), PAGE_SIZE);
+        assertEquals(3, statistics.getPrepareStatementCount(), "заголовки заказов, COUNT и позиции");
+    }
+
+    @Test
+    void myOrdersPageTakesThreeStatements() {
+        Page<OrderResponseDTO> page = orderService.getMyOrders(firstClientId(), 0, CLIENT_PAGE_SIZE);
+
+        assertEquals(ORDERS / CLIENTS, page.getTotalElements());
+        assertPageItemsLoaded(page.getContent(), CLIENT_PAGE_SIZE);
+        assertEquals(3, statistics.getPrepareStatementCount(), "заголовки заказов, COUNT и позиции");
+    }
+
+    @Test
+    void orderHistoryPageTakesThreeStatements() {
+        Page<OrderResponseDTO> page = orderService.getOrderHistory(firstClientId(), 0, CLIENT_PAGE_SIZE);
+
+        assertEquals(ORDERS / CLIENTS, page.getTotalElements());
+        assertPageItemsLoaded(page.getContent(), CLIENT_PAGE_SIZE);
+        assertEquals(3, statistics.getPrepareStatementCount(), "заголовки заказов, COUNT и позиции");
+    }
+
+    private void assertPageItemsLoaded(List<OrderResponseDTO> orders, int expectedSize) {
+        assertEquals(expectedSize, orders.size());
+        orders.forEach(order -> {
+            assertEquals(2, order.getItems().size());
+            order.getItems().forEach(item -> assertNotNull(item.getProductName()));
+        });
+    }
+}
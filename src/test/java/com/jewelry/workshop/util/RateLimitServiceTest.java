@@ -0,0 +1,85 @@
+package com.jewelry.workshop.util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Параллельные запросы к одному окну: скрипт Lua должен выдать ровно maxAttempts попыток
+@Testcontainers
+class RateLimitServiceTest {
+
+    private static final int THREADS = 64;
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RateLimitService rateLimitService;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        rateLimitService = new RateLimitService(redisTemplate);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void parallelSingleAttemptsPassExactlyMaxAttempts() throws Exception {
+        List<Integer> granted = runConcurrently(() ->
+                rateLimitService.isAllowed("test:single", MAX_ATTEMPTS, 1) ? 1 : 0);
+
+        assertEquals(MAX_ATTEMPTS, granted.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void parallelBatchAcquiresNeverExceedMaxAttempts() throws Exception {
+        List<Integer> granted = runConcurrently(() ->
+                rateLimitService.acquire("test:batch", 3, MAX_ATTEMPTS, 1).granted());
+
+        assertEquals(MAX_ATTEMPTS, granted.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    private static List<Integer> runConcurrently(Supplier<Integer> attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return attempt.get();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}